@@ -0,0 +1,203 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmark;
+
+import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.utils.network.PacketListeners;
+import meteordevelopment.meteorclient.utils.network.PacketUtils;
+import meteordevelopment.orbit.EventBus;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.IEventBus;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.packet.Packet;
+import org.openjdk.jmh.annotations.*;
+import sun.misc.Unsafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Replays a stream of received packets through the event bus, where every listener gets every {@link PacketEvent.Receive}
+ * and checks the packet class itself, and through {@link PacketListeners}, where listeners are only invoked for the packet
+ * class they are registered for and the event is still posted to the bus for everything else.
+ * <p>
+ * The stream is read from the file given with {@code -p recording=<path>}, one {@link PacketUtils#getName(Class)} per line
+ * in the order the packets were received. Without a recording a second of a busy server is generated from {@link #MIX}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketDispatchBenchmark {
+    // Packets per second of a server with a few hundred entities in view
+    private static final Object[][] MIX = {
+        { "EntityS2CPacket.MoveRelative", 400 },
+        { "EntityS2CPacket.RotateAndMoveRelative", 300 },
+        { "EntitySetHeadYawS2CPacket", 250 },
+        { "EntityVelocityUpdateS2CPacket", 120 },
+        { "EntityS2CPacket.Rotate", 100 },
+        { "EntityTrackerUpdateS2CPacket", 80 },
+        { "EntityPositionSyncS2CPacket", 40 },
+        { "BlockUpdateS2CPacket", 30 },
+        { "ParticleS2CPacket", 30 },
+        { "ChunkDeltaUpdateS2CPacket", 20 },
+        { "PlaySoundS2CPacket", 20 },
+        { "EntityAnimationS2CPacket", 20 },
+        { "EntityStatusS2CPacket", 10 },
+        { "EntityEquipmentUpdateS2CPacket", 10 },
+        { "EntitySpawnS2CPacket", 5 },
+        { "EntitiesDestroyS2CPacket", 5 },
+        { "LightUpdateS2CPacket", 5 },
+        { "ChunkDataS2CPacket", 5 },
+        { "GameMessageS2CPacket", 2 },
+        { "WorldTimeUpdateS2CPacket", 1 },
+        { "KeepAliveS2CPacket", 1 }
+    };
+
+    // Packet classes modules commonly listen for, the first ones are used
+    private static final String[] LISTENED = {
+        "WorldTimeUpdateS2CPacket",
+        "PlayerPositionLookS2CPacket",
+        "GameMessageS2CPacket",
+        "PlaySoundS2CPacket",
+        "EntityStatusS2CPacket",
+        "EntityVelocityUpdateS2CPacket",
+        "ExplosionS2CPacket",
+        "BlockUpdateS2CPacket",
+        "HealthUpdateS2CPacket",
+        "KeepAliveS2CPacket"
+    };
+
+    @Param({"1", "5", "10"})
+    public int listeners;
+
+    @Param({""})
+    public String recording;
+
+    private Packet<?>[] stream;
+    private int hits;
+
+    private IEventBus allBus;
+    private IEventBus remainingBus;
+
+    private final List<Class<? extends Packet<?>>> registeredClasses = new ArrayList<>();
+    private final List<Consumer<PacketEvent.Receive>> registeredListeners = new ArrayList<>();
+
+    @Setup
+    public void setup() throws Exception {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        List<String> names = recording.isEmpty() ? generate() : Files.readAllLines(Path.of(recording));
+        stream = new Packet<?>[names.size()];
+
+        Unsafe unsafe = getUnsafe();
+        for (int i = 0; i < stream.length; i++) {
+            // Only the class of the packet is looked at so their contents don't matter
+            stream[i] = (Packet<?>) unsafe.allocateInstance(getPacket(names.get(i).trim()));
+        }
+
+        allBus = createBus();
+        remainingBus = createBus();
+
+        for (int i = 0; i < listeners; i++) {
+            Class<? extends Packet<?>> packetClass = getPacket(LISTENED[i]);
+
+            allBus.subscribe(new InstanceofListener(packetClass));
+
+            Consumer<PacketEvent.Receive> listener = event -> hits++;
+            PacketListeners.RECEIVE.add(packetClass, listener);
+            registeredClasses.add(packetClass);
+            registeredListeners.add(listener);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = 0; i < registeredClasses.size(); i++) {
+            PacketListeners.RECEIVE.remove(registeredClasses.get(i), registeredListeners.get(i));
+        }
+
+        registeredClasses.clear();
+        registeredListeners.clear();
+    }
+
+    @Benchmark
+    public int eventBus() {
+        for (Packet<?> packet : stream) {
+            PacketEvent.Receive event = PacketEvent.Receive.get(packet, null);
+            allBus.post(event);
+            event.free();
+        }
+
+        return hits;
+    }
+
+    @Benchmark
+    public int packetListeners() {
+        for (Packet<?> packet : stream) {
+            PacketEvent.Receive event = PacketEvent.Receive.get(packet, null);
+            PacketListeners.RECEIVE.dispatch(packet, event);
+            if (!event.isCancelled()) remainingBus.post(event);
+            event.free();
+        }
+
+        return hits;
+    }
+
+    private static List<String> generate() {
+        List<String> names = new ArrayList<>();
+
+        for (Object[] entry : MIX) {
+            for (int i = 0; i < (int) entry[1]; i++) names.add((String) entry[0]);
+        }
+
+        Collections.shuffle(names, new Random(0));
+        return names;
+    }
+
+    private static Class<? extends Packet<?>> getPacket(String name) {
+        Class<? extends Packet<?>> packetClass = PacketUtils.getPacket(name);
+        if (packetClass == null) throw new IllegalArgumentException("Unknown packet '" + name + "'.");
+        return packetClass;
+    }
+
+    private static IEventBus createBus() {
+        IEventBus bus = new EventBus();
+        bus.registerLambdaFactory("meteordevelopment.meteorclient", (lookupInMethod, klass) -> (MethodHandles.Lookup) lookupInMethod.invoke(null, klass, MethodHandles.lookup()));
+        return bus;
+    }
+
+    private static Unsafe getUnsafe() throws ReflectiveOperationException {
+        Field field = Unsafe.class.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        return (Unsafe) field.get(null);
+    }
+
+    public class InstanceofListener {
+        private final Class<? extends Packet<?>> packetClass;
+
+        public InstanceofListener(Class<? extends Packet<?>> packetClass) {
+            this.packetClass = packetClass;
+        }
+
+        @EventHandler
+        private void onReceive(PacketEvent.Receive event) {
+            if (packetClass.isInstance(event.packet)) hits++;
+        }
+    }
+}
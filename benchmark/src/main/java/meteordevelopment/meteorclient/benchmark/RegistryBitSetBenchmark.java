@@ -0,0 +1,75 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.benchmark;
+
+import meteordevelopment.meteorclient.utils.misc.RegistryBitSet;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.Registries;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link List#contains(Object)}, which block list settings used to be queried with, to
+ * {@link RegistryBitSet#contains(Object)} for a stream of block state lookups like the ones done while searching a chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBitSetBenchmark {
+    private static final int LOOKUPS = 4096;
+
+    @Param({"1", "20", "200"})
+    public int selected;
+
+    private List<Block> list;
+    private RegistryBitSet<Block> bitSet;
+    private BlockState[] lookups;
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        int size = Registries.BLOCK.size();
+        Random random = new Random(0);
+
+        list = new ArrayList<>(selected);
+        while (list.size() < selected) {
+            Block block = Registries.BLOCK.get(random.nextInt(size));
+            if (!list.contains(block)) list.add(block);
+        }
+
+        bitSet = new RegistryBitSet<>(Registries.BLOCK, list);
+
+        // Mostly misses, like most blocks of a chunk not being selected
+        lookups = new BlockState[LOOKUPS];
+        for (int i = 0; i < lookups.length; i++) {
+            Block block = random.nextInt(16) == 0 ? list.get(random.nextInt(selected)) : Registries.BLOCK.get(random.nextInt(size));
+            lookups[i] = block.getDefaultState();
+        }
+    }
+
+    @Benchmark
+    public void list(Blackhole blackhole) {
+        for (BlockState state : lookups) blackhole.consume(list.contains(state.getBlock()));
+    }
+
+    @Benchmark
+    public void bitSet(Blackhole blackhole) {
+        for (BlockState state : lookups) blackhole.consume(bitSet.contains(state.getBlock()));
+    }
+}
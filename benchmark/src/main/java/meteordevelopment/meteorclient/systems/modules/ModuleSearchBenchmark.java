@@ -0,0 +1,128 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.misc.ValueComparableMap;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Levenshtein scan over every module the module search used to do to {@link ModuleSearchIndex} for each
+ * keystroke of typing a few module names. Lives in the modules package because the index is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleSearchBenchmark {
+    private static final String[] WORDS = {
+        "auto", "kill", "aura", "crystal", "anchor", "bed", "fast", "place", "break", "no", "fall", "velocity", "block",
+        "chest", "steal", "elytra", "fly", "boost", "esp", "tracers", "trail", "speed", "step", "jump", "sprint", "walk",
+        "armor", "totem", "tool", "eat", "mine", "nuker", "scaffold", "surround", "trap", "hole", "filler", "light",
+        "render", "name", "tags", "freecam", "zoom", "reach", "swing", "inventory", "tweaks", "chat", "spam", "log"
+    };
+
+    private static final String[] TYPED = { "kill aura", "auto totem", "surround", "elytra fly", "no fall" };
+
+    @Param({"500"})
+    public int moduleCount;
+
+    @Param({"8"})
+    public int limit;
+
+    private List<Module> modules;
+    private ModuleSearchIndex index;
+    private String[] queries;
+
+    @Setup
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        Category category = new Category("Benchmark");
+        Random random = new Random(0);
+        Set<String> names = new HashSet<>();
+
+        modules = new ArrayList<>(moduleCount);
+        while (modules.size() < moduleCount) {
+            String name = WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)];
+            if (random.nextBoolean()) name += "-" + WORDS[random.nextInt(WORDS.length)];
+            if (!names.add(name)) continue;
+
+            String[] aliases = random.nextInt(4) == 0 ? new String[] { WORDS[random.nextInt(WORDS.length)] } : new String[0];
+            modules.add(new BenchmarkModule(category, name, aliases));
+        }
+
+        index = new ModuleSearchIndex();
+        index.build(modules);
+
+        // Every prefix, like the search being run on each keystroke
+        List<String> queries = new ArrayList<>();
+        for (String typed : TYPED) {
+            for (int i = 1; i <= typed.length(); i++) queries.add(typed.substring(0, i));
+        }
+
+        this.queries = queries.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void levenshteinScan(Blackhole blackhole) {
+        for (String query : queries) {
+            int i = 0;
+
+            for (Module module : scan(query)) {
+                if (i++ >= limit) break;
+                blackhole.consume(module);
+            }
+        }
+    }
+
+    @Benchmark
+    public void searchIndex(Blackhole blackhole) {
+        for (String query : queries) {
+            for (Module module : index.searchTitles(query, true, limit)) blackhole.consume(module);
+        }
+    }
+
+    private Set<Module> scan(String text) {
+        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
+
+        for (Module module : this.modules) {
+            if (!module.isEnabled()) continue;
+
+            int score = Utils.searchLevenshteinDefault(module.title, text, false);
+
+            for (String alias : module.aliases) {
+                int aliasScore = Utils.searchLevenshteinDefault(alias, text, false);
+                if (aliasScore < score) score = aliasScore;
+            }
+
+            modules.put(module, modules.getOrDefault(module, 0) + score);
+        }
+
+        return modules.keySet();
+    }
+
+    private static class BenchmarkModule extends Module {
+        public BenchmarkModule(Category category, String name, String... aliases) {
+            super(category, name, "", aliases);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes every {@code @PreInit} and {@code @PostInit} method with its dependencies to {@link #INDEX}, so they don't
+ * need to be found by scanning the classpath at startup. Every line has the form
+ * {@code <annotation> <class> <method> [dependency classes...]} using binary class names.
+ */
+@SupportedAnnotationTypes({InitIndexProcessor.PRE_INIT, InitIndexProcessor.POST_INIT})
+public class InitIndexProcessor extends AbstractProcessor {
+    public static final String INDEX = "META-INF/meteor-init.idx";
+
+    static final String PRE_INIT = "meteordevelopment.meteorclient.utils.PreInit";
+    static final String POST_INIT = "meteordevelopment.meteorclient.utils.PostInit";
+
+    private final Set<String> lines = new TreeSet<>();
+    private final Set<Element> originatingElements = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getSimpleName().toString();
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) continue;
+                ExecutableElement method = (ExecutableElement) element;
+
+                if (!method.getModifiers().contains(Modifier.STATIC) || !method.getParameters().isEmpty()) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@%s methods need to be static and can't have parameters".formatted(name), method);
+                    continue;
+                }
+
+                TypeElement owner = (TypeElement) method.getEnclosingElement();
+
+                StringBuilder line = new StringBuilder(name).append(' ').append(getBinaryName(owner)).append(' ').append(method.getSimpleName());
+                for (TypeElement dependency : getDependencies(method, annotation)) line.append(' ').append(getBinaryName(dependency));
+
+                lines.add(line.toString());
+                originatingElements.add(owner);
+            }
+        }
+
+        if (roundEnv.processingOver() && !lines.isEmpty()) write();
+        return false;
+    }
+
+    private List<TypeElement> getDependencies(ExecutableElement method, TypeElement annotation) {
+        List<TypeElement> dependencies = new ArrayList<>();
+
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation)) continue;
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (!entry.getKey().getSimpleName().contentEquals("dependencies")) continue;
+
+                @SuppressWarnings("unchecked")
+                List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
+
+                for (AnnotationValue value : values) {
+                    TypeMirror type = (TypeMirror) value.getValue();
+                    dependencies.add((TypeElement) ((DeclaredType) type).asElement());
+                }
+            }
+        }
+
+        return dependencies;
+    }
+
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void write() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX, originatingElements.toArray(Element[]::new));
+
+            try (Writer writer = file.openWriter()) {
+                for (String line : lines) writer.write(line + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + INDEX + ": " + e.getMessage());
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package meteordevelopment.meteorclient;
 
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
 import meteordevelopment.meteorclient.addons.AddonManager;
 import meteordevelopment.meteorclient.addons.MeteorAddon;
 import meteordevelopment.meteorclient.events.game.OpenScreenEvent;
@@ -14,11 +15,16 @@ import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.gui.GuiThemes;
 import meteordevelopment.meteorclient.gui.WidgetScreen;
 import meteordevelopment.meteorclient.gui.tabs.Tabs;
+import meteordevelopment.meteorclient.renderer.Fonts;
+import meteordevelopment.meteorclient.renderer.text.FontFamily;
+import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.Systems;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.DiscordPresence;
+import meteordevelopment.meteorclient.systems.waypoints.Waypoints;
+import meteordevelopment.meteorclient.utils.Bootstrap;
 import meteordevelopment.meteorclient.utils.PostInit;
 import meteordevelopment.meteorclient.utils.PreInit;
 import meteordevelopment.meteorclient.utils.ReflectInit;
@@ -36,12 +42,16 @@ import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.metadata.ModMetadata;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ChatScreen;
+import net.minecraft.client.texture.NativeImage;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
 
 public class MeteorClient implements ClientModInitializer {
     public static final String MOD_ID = "CFutils";
@@ -94,44 +104,64 @@ public class MeteorClient implements ClientModInitializer {
             Systems.addPreLoadTask(() -> Modules.get().get(DiscordPresence.class).toggle());
         }
 
+        Bootstrap bootstrap = new Bootstrap();
+
+        // I/O which doesn't depend on anything else
+        Bootstrap.Task<List<FontFamily>> fonts = bootstrap.async("Scan fonts", Fonts::scan);
+        Fonts.setScanTask(fonts.future());
+
+        Bootstrap.Task<Map<String, NativeImage>> waypointIcons = bootstrap.async("Decode waypoint icons", Waypoints::readIcons);
+        Waypoints.setIconsTask(waypointIcons.future());
+
         // Register addons
-        AddonManager.init();
+        Bootstrap.Task<Void> addons = bootstrap.main("Register addons", AddonManager::init);
+
+        // Register init classes
+        Bootstrap.Task<Void> initClasses = bootstrap.async("Find init methods", () -> {
+            ReflectInit.registerPackages();
+            return null;
+        }, addons);
 
         // Register event handlers
-        AddonManager.ADDONS.forEach(addon -> {
+        bootstrap.main("Register event handlers", () -> AddonManager.ADDONS.forEach(addon -> {
             try {
                 EVENT_BUS.registerLambdaFactory(addon.getPackage(), (lookupInMethod, klass) -> (MethodHandles.Lookup) lookupInMethod.invoke(null, klass, MethodHandles.lookup()));
             } catch (AbstractMethodError e) {
                 throw new RuntimeException("Addon \"%s\" is too old and cannot be ran.".formatted(addon.name), e);
             }
-        });
-
-        // Register init classes
-        ReflectInit.registerPackages();
+        }));
 
         // Pre init
-        ReflectInit.init(PreInit.class);
+        bootstrap.main("Pre init", () -> ReflectInit.init(PreInit.class), initClasses, fonts);
 
         // Register module categories
-        Categories.init();
+        bootstrap.main("Register categories", Categories::init);
 
         // Load systems
-        Systems.init();
+        bootstrap.main("Init systems", Systems::init, waypointIcons);
+
+        // Read the files of all systems while addons are initialised
+        Map<System<?>, Bootstrap.Task<NbtCompound>> systemTags = new Reference2ReferenceOpenHashMap<>();
+        for (System<?> system : Systems.getAll()) {
+            systemTags.put(system, bootstrap.async("Read " + system.getClass().getSimpleName(), () -> system.read(null)));
+        }
 
         // Subscribe after systems are loaded
         EVENT_BUS.subscribe(this);
 
         // Initialise addons
-        AddonManager.ADDONS.forEach(MeteorAddon::onInitialize);
+        bootstrap.main("Initialise addons", () -> AddonManager.ADDONS.forEach(MeteorAddon::onInitialize));
 
         // Sort modules after addons have added their own
         Modules.get().sortModules();
 
         // Load configs
-        Systems.load();
+        bootstrap.main("Load systems", () -> Systems.load(null, system -> systemTags.get(system).join()), systemTags.values().toArray(Bootstrap.Task[]::new));
 
         // Post init
-        ReflectInit.init(PostInit.class);
+        bootstrap.main("Post init", () -> ReflectInit.init(PostInit.class));
+
+        bootstrap.finish();
 
         // Save on shutdown
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -16,6 +16,8 @@ import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
+import java.util.List;
+
 public class ModulesCommand extends Command {
     public ModulesCommand() {
         super("modules", "Displays a list of all modules.", "features");
@@ -36,6 +38,29 @@ public class ModulesCommand extends Command {
 
             return SINGLE_SUCCESS;
         });
+
+        builder.then(literal("memory").executes(context -> {
+            List<Module> allocated = Modules.get().getAllocated();
+            long total = 0;
+
+            ChatUtils.info("--- Allocated modules ((highlight)%d(default)) ---", allocated.size());
+
+            for (Module module : allocated) {
+                long memory = module.getRetainedMemory();
+                total += memory;
+
+                ChatUtils.info("(highlight)%s(default): %s%s", module.title, formatBytes(memory), module.isActive() ? "" : " (inactive)");
+            }
+
+            ChatUtils.info("Total: (highlight)%s", formatBytes(total));
+            return SINGLE_SUCCESS;
+        }));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return "%.1f KiB".formatted(bytes / 1024.0);
+        return "%.1f MiB".formatted(bytes / (1024.0 * 1024.0));
     }
 
     private MutableText getModuleText(Module module) {
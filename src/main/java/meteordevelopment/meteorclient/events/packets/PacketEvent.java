@@ -6,39 +6,97 @@
 package meteordevelopment.meteorclient.events.packets;
 
 import meteordevelopment.meteorclient.events.Cancellable;
+import meteordevelopment.meteorclient.utils.misc.Pool;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.Packet;
 
+/**
+ * Packet events are pooled instead of using a single instance because they are posted from both the netty and the
+ * render thread and listeners can send packets while handling one. Instances must not be kept after the event is posted.
+ */
 public class PacketEvent {
     public static class Receive extends Cancellable {
+        private static final Pool<Receive> POOL = new Pool<>(Receive::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Receive() {}
+
         public Receive(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Receive get(Packet<?> packet, ClientConnection connection) {
+            Receive event = POOL.get();
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void free() {
+            packet = null;
+            connection = null;
+            POOL.free(this);
+        }
     }
 
     public static class Send extends Cancellable {
+        private static final Pool<Send> POOL = new Pool<>(Send::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Send() {}
+
         public Send(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Send get(Packet<?> packet, ClientConnection connection) {
+            Send event = POOL.get();
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void free() {
+            packet = null;
+            connection = null;
+            POOL.free(this);
+        }
     }
 
     public static class Sent {
+        private static final Pool<Sent> POOL = new Pool<>(Sent::new);
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Sent() {}
+
         public Sent(Packet<?> packet, ClientConnection connection) {
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Sent get(Packet<?> packet, ClientConnection connection) {
+            Sent event = POOL.get();
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void free() {
+            packet = null;
+            connection = null;
+            POOL.free(this);
+        }
     }
 }
@@ -5,6 +5,7 @@
 
 package meteordevelopment.meteorclient.events.render;
 
+import meteordevelopment.meteorclient.renderer.RenderQueue;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.utils.Utils;
 import net.minecraft.client.util.math.MatrixStack;
@@ -14,13 +15,15 @@ public class Render3DEvent {
 
     public MatrixStack matrices;
     public Renderer3D renderer;
+    public RenderQueue queue;
     public double frameTime;
     public float tickDelta;
     public double offsetX, offsetY, offsetZ;
 
-    public static Render3DEvent get(MatrixStack matrices, Renderer3D renderer, float tickDelta, double offsetX, double offsetY, double offsetZ) {
+    public static Render3DEvent get(MatrixStack matrices, Renderer3D renderer, RenderQueue queue, float tickDelta, double offsetX, double offsetY, double offsetZ) {
         INSTANCE.matrices = matrices;
         INSTANCE.renderer = renderer;
+        INSTANCE.queue = queue;
         INSTANCE.frameTime = Utils.frameTime;
         INSTANCE.tickDelta = tickDelta;
         INSTANCE.offsetX = offsetX;
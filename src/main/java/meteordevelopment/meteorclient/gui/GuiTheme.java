@@ -34,6 +34,7 @@ import net.minecraft.util.math.BlockPos;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public abstract class GuiTheme implements ISerializable<GuiTheme> {
     public final String name;
@@ -149,6 +150,10 @@ public abstract class GuiTheme implements ISerializable<GuiTheme> {
         return w(new WTable());
     }
 
+    public <T> WVirtualList<T> virtualList(Function<T, WWidget> rowFactory) {
+        return w(new WVirtualList<>(rowFactory));
+    }
+
     public abstract WSection section(String title, boolean expanded, WWidget headerWidget);
 
     public WSection section(String title, boolean expanded) {
@@ -87,7 +87,7 @@ public abstract class WidgetScreen extends Screen {
     }
 
     public void invalidate() {
-        root.invalidate();
+        root.invalidateAll();
     }
 
     @Override
@@ -270,6 +270,7 @@ public abstract class WidgetScreen extends Screen {
         root.render(RENDERER, mouseX, mouseY, delta / 20);
         RENDERER.setAlpha(1);
         RENDERER.end();
+        RENDERER.releaseUnusedCaches();
 
         boolean tooltip = RENDERER.renderTooltip(context, mouseX, mouseY, delta / 20);
 
@@ -278,8 +279,11 @@ public abstract class WidgetScreen extends Screen {
 
             DEBUG_RENDERER.render(root, matrices);
             if (tooltip) DEBUG_RENDERER.render(RENDERER.tooltipWidget, matrices);
+            DEBUG_RENDERER.renderLayoutStats(matrices);
         }
 
+        GuiDebugRenderer.endFrame();
+
         context.draw();
         Utils.scaledProjection();
 
@@ -298,7 +302,7 @@ public abstract class WidgetScreen extends Screen {
     @Override
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
-        root.invalidate();
+        root.invalidateAll();
     }
 
     @Override
@@ -374,6 +378,7 @@ public abstract class WidgetScreen extends Screen {
 
         @Override
         public void invalidate() {
+            markLayoutDirty();
             valid = false;
         }
 
@@ -403,6 +408,7 @@ public abstract class WidgetScreen extends Screen {
                 calculateWidgetPositions();
 
                 valid = true;
+                GuiDebugRenderer.onLayout();
                 mouseMoved(mc.mouse.getX(), mc.mouse.getY(), mc.mouse.getX(), mc.mouse.getY());
             }
 
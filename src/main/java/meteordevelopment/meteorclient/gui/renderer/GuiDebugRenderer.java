@@ -12,6 +12,7 @@ import meteordevelopment.meteorclient.renderer.DrawMode;
 import meteordevelopment.meteorclient.renderer.Mesh;
 import meteordevelopment.meteorclient.renderer.ShaderMesh;
 import meteordevelopment.meteorclient.renderer.Shaders;
+import meteordevelopment.meteorclient.renderer.text.TextRenderer;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.util.math.MatrixStack;
 
@@ -19,8 +20,33 @@ public class GuiDebugRenderer {
     private static final Color CELL_COLOR = new Color(25, 225, 25);
     private static final Color WIDGET_COLOR = new Color(25, 25, 225);
 
+    private static int layouts, measured, positioned;
+    private static int frameLayouts, frameMeasured, framePositioned;
+
     private final Mesh mesh = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
 
+    public static void onLayout() {
+        frameLayouts++;
+    }
+
+    public static void onMeasured() {
+        frameMeasured++;
+    }
+
+    public static void onPositioned() {
+        framePositioned++;
+    }
+
+    public static void endFrame() {
+        layouts = frameLayouts;
+        measured = frameMeasured;
+        positioned = framePositioned;
+
+        frameLayouts = 0;
+        frameMeasured = 0;
+        framePositioned = 0;
+    }
+
     public void render(WWidget widget, MatrixStack matrices) {
         if (widget == null) return;
 
@@ -32,6 +58,15 @@ public class GuiDebugRenderer {
         mesh.render(matrices);
     }
 
+    /** Shows how many layout passes ran during the last frame and how many widgets they measured and positioned. */
+    public void renderLayoutStats(MatrixStack matrices) {
+        TextRenderer text = TextRenderer.get();
+
+        text.begin();
+        text.render(String.format("Layout passes: %d, measured: %d, positioned: %d", layouts, measured, positioned), 4, 4, Color.WHITE, true);
+        text.end(matrices);
+    }
+
     private void renderWidget(WWidget widget) {
         lineBox(widget.x, widget.y, widget.width, widget.height, WIDGET_COLOR);
 
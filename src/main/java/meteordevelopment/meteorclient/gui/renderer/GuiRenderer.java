@@ -5,31 +5,39 @@
 
 package meteordevelopment.meteorclient.gui.renderer;
 
+import com.mojang.blaze3d.systems.ProjectionType;
+import com.mojang.blaze3d.systems.RenderSystem;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.renderer.operations.TextOperation;
 import meteordevelopment.meteorclient.gui.renderer.packer.GuiTexture;
 import meteordevelopment.meteorclient.gui.renderer.packer.TexturePacker;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
-import meteordevelopment.meteorclient.renderer.GL;
-import meteordevelopment.meteorclient.renderer.Renderer2D;
-import meteordevelopment.meteorclient.renderer.Texture;
+import meteordevelopment.meteorclient.renderer.*;
 import meteordevelopment.meteorclient.utils.PostInit;
+import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.meteorclient.utils.render.ByteTexture;
 import meteordevelopment.meteorclient.utils.render.RenderUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.MathHelper;
+import org.joml.Matrix4f;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
 
+import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static meteordevelopment.meteorclient.utils.Utils.getWindowHeight;
 import static meteordevelopment.meteorclient.utils.Utils.getWindowWidth;
+import static org.lwjgl.opengl.GL11C.GL_COLOR_BUFFER_BIT;
 
 public class GuiRenderer {
     private static final Color WHITE = new Color(255, 255, 255);
@@ -61,6 +69,16 @@ public class GuiRenderer {
     private double tooltipAnimProgress;
 
     private DrawContext drawContext;
+    private double alpha = 1;
+
+    // Widgets rendered into framebuffers, see renderCached()
+    private final Reference2ObjectMap<WWidget, CachedWidget> cachedWidgets = new Reference2ObjectOpenHashMap<>();
+    private final Mesh cachedMesh = new ShaderMesh(Shaders.POS_TEX_COLOR, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
+    private int originX, originY, targetHeight = -1;
+
+    public GuiRenderer() {
+        cachedMesh.premultipliedAlpha = true;
+    }
 
     public static GuiTexture addTexture(Identifier id) {
         return TEXTURE_PACKER.add(id);
@@ -136,7 +154,7 @@ public class GuiRenderer {
             if (y < parent.y) y = parent.y;
             else if (y + height > parent.y + parent.height) height -= (y + height) - (parent.y + parent.height);
 
-            parent.apply();
+            apply(parent);
             endRender();
         }
 
@@ -144,10 +162,18 @@ public class GuiRenderer {
         beginRender();
     }
 
+    /** @return false if the rectangle is completely outside the current scissor */
+    public boolean isVisible(double x, double y, double width, double height) {
+        if (scissorStack.isEmpty()) return true;
+
+        Scissor scissor = scissorStack.peek();
+        return x + width >= scissor.x && x <= scissor.x + scissor.width && y + height >= scissor.y && y <= scissor.y + scissor.height;
+    }
+
     public void scissorEnd() {
         Scissor scissor = scissorStack.pop();
 
-        scissor.apply();
+        apply(scissor);
         endRender();
         for (Runnable task : scissor.postTasks) task.run();
         if (!scissorStack.isEmpty()) beginRender();
@@ -185,7 +211,111 @@ public class GuiRenderer {
         return toReturn;
     }
 
+    private void apply(Scissor scissor) {
+        if (targetHeight == -1) scissor.apply();
+        else scissor.apply(originX, originY, targetHeight);
+    }
+
+    // Cached widgets
+
+    /** @return true if widgets can currently be rendered through {@link #renderCached(WWidget, boolean, Runnable)} */
+    public boolean canCache() {
+        return alpha == 1 && scissorStack.size() == 1 && targetHeight == -1;
+    }
+
+    /**
+     * Draws the widget from a framebuffer holding its last rendered frame. The widget is only rendered into the
+     * framebuffer again when {@code repaint} is true or its bounds changed.
+     */
+    public void renderCached(WWidget widget, boolean repaint, Runnable render) {
+        int x = (int) Math.floor(widget.x);
+        int y = (int) Math.floor(widget.y);
+        int width = (int) Math.ceil(widget.width);
+        int height = (int) Math.ceil(widget.height);
+        if (width <= 0 || height <= 0) return;
+
+        CachedWidget cached = cachedWidgets.computeIfAbsent(widget, w -> new CachedWidget());
+        cached.used = true;
+
+        // Everything batched before the widget has to be drawn below it
+        flush();
+
+        if (repaint || !cached.matches(x, y, width, height)) {
+            cached.bind(x, y, width, height);
+
+            MatrixStack matrices = drawContext.getMatrices();
+            matrices.push();
+            matrices.translate(-x, -y, 0);
+            RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0, width, height, 0, 1000, 21000), ProjectionType.ORTHOGRAPHIC);
+
+            originX = x;
+            originY = y;
+            targetHeight = height;
+
+            int postTaskCount = postTasks.size();
+
+            scissorStart(x, y, width, height);
+            render.run();
+            scissorEnd();
+            drawContext.draw();
+
+            // Tasks rendered outside the widget, like dropdowns, are lost when drawing the cached frame
+            cached.valid = postTasks.size() == postTaskCount;
+
+            targetHeight = -1;
+            matrices.pop();
+
+            mc.getFramebuffer().beginWrite(true);
+            Utils.unscaledProjection();
+        }
+
+        // Composite
+        cachedMesh.begin();
+        cachedMesh.quad(
+            cachedMesh.vec2(x, y).vec2(0, 1).color(WHITE).next(),
+            cachedMesh.vec2(x, y + height).vec2(0, 0).color(WHITE).next(),
+            cachedMesh.vec2(x + width, y + height).vec2(1, 0).color(WHITE).next(),
+            cachedMesh.vec2(x + width, y).vec2(1, 1).color(WHITE).next()
+        );
+        cachedMesh.end();
+
+        apply(scissorStack.peek());
+        GL.bindTexture(cached.framebuffer.texture);
+        cachedMesh.render(drawContext.getMatrices());
+    }
+
+    /** Keeps the framebuffer of a widget which is currently drawn directly, its next cached render draws it again. */
+    public void invalidateCached(WWidget widget) {
+        CachedWidget cached = cachedWidgets.get(widget);
+
+        if (cached != null) {
+            cached.used = true;
+            cached.valid = false;
+        }
+    }
+
+    /** Destroys the framebuffers of widgets which weren't rendered through {@link #renderCached(WWidget, boolean, Runnable)} since the last call. */
+    public void releaseUnusedCaches() {
+        for (Iterator<CachedWidget> it = cachedWidgets.values().iterator(); it.hasNext();) {
+            CachedWidget cached = it.next();
+
+            if (!cached.used) {
+                cached.destroy();
+                it.remove();
+            }
+            else cached.used = false;
+        }
+    }
+
+    private void flush() {
+        apply(scissorStack.peek());
+        endRender();
+        drawContext.draw();
+        beginRender();
+    }
+
     public void setAlpha(double a) {
+        alpha = a;
         r.setAlpha(a);
         rTex.setAlpha(a);
 
@@ -251,6 +381,34 @@ public class GuiRenderer {
         postTasks.add(task);
     }
 
+    private static class CachedWidget {
+        public Framebuffer framebuffer;
+        public int x, y;
+        public boolean valid, used;
+
+        public boolean matches(int x, int y, int width, int height) {
+            return valid && this.x == x && this.y == y && framebuffer.width == width && framebuffer.height == height;
+        }
+
+        public void bind(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+
+            if (framebuffer == null || framebuffer.width != width || framebuffer.height != height) {
+                if (framebuffer != null) framebuffer.destroy();
+                framebuffer = new Framebuffer(width, height);
+            }
+
+            framebuffer.bind();
+            framebuffer.setViewport();
+            GL.clear(GL_COLOR_BUFFER_BIT, 0, 0, 0, 0);
+        }
+
+        public void destroy() {
+            if (framebuffer != null) framebuffer.destroy();
+        }
+    }
+
     private <T extends GuiRenderOperation<T>> T getOp(Pool<T> pool, double x, double y, Color color) {
         T op = pool.get();
         op.set(x, y, color);
@@ -32,6 +32,11 @@ public class Scissor {
     }
 
     public void apply() {
-        glScissor(x, getWindowHeight() - y - height, width, height);
+        apply(0, 0, getWindowHeight());
+    }
+
+    /** Applies the scissor to a render target whose top left corner is at the given position. */
+    public void apply(int originX, int originY, int targetHeight) {
+        glScissor(x - originX, targetHeight - (y - originY) - height, width, height);
     }
 }
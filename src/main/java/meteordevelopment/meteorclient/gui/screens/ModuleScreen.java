@@ -37,7 +37,10 @@ public class ModuleScreen extends WindowScreen {
 
     public ModuleScreen(GuiTheme theme, Module module) {
         super(theme, theme.favorite(module.favorite), module.title);
-        ((WFavorite) window.icon).action = () -> module.favorite = ((WFavorite) window.icon).checked;
+        ((WFavorite) window.icon).action = () -> {
+            module.favorite = ((WFavorite) window.icon).checked;
+            Modules.get().markDirty();
+        };
 
         this.module = module;
     }
@@ -87,7 +90,10 @@ public class ModuleScreen extends WindowScreen {
 
         cf.add(theme.label("Chat Feedback: "));
         WCheckbox cfC = cf.add(theme.checkbox(module.chatFeedback)).widget();
-        cfC.action = () -> module.chatFeedback = cfC.checked;
+        cfC.action = () -> {
+            module.chatFeedback = cfC.checked;
+            Modules.get().markDirty();
+        };
 
         add(theme.horizontalSeparator()).expandX();
 
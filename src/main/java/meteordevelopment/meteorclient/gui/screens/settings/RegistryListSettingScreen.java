@@ -5,24 +5,28 @@
 
 package meteordevelopment.meteorclient.gui.screens.settings;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
 import meteordevelopment.meteorclient.gui.utils.Cell;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
+import meteordevelopment.meteorclient.gui.widgets.containers.WVirtualList;
 import meteordevelopment.meteorclient.gui.widgets.input.WTextBox;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WPressable;
 import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import net.minecraft.registry.Registry;
-import net.minecraft.util.Pair;
+import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
 public abstract class RegistryListSettingScreen<T> extends WindowScreen {
     protected final Setting<?> setting;
     protected final Collection<T> collection;
@@ -32,6 +36,12 @@ public abstract class RegistryListSettingScreen<T> extends WindowScreen {
     private String filterText = "";
 
     private WTable table;
+    private WVirtualList<T> left, right;
+
+    // Lowercased names of the registry values which can be shown, created once when the screen is opened
+    private final List<Entry<T>> entries = new ArrayList<>();
+    private final Reference2ObjectMap<T, Entry<T>> entriesByValue = new Reference2ObjectOpenHashMap<>();
+    private int filterVersion;
 
     public RegistryListSettingScreen(GuiTheme theme, String title, Setting<?> setting, Collection<T> collection, Registry<T> registry) {
         super(theme, title);
@@ -48,93 +58,149 @@ public abstract class RegistryListSettingScreen<T> extends WindowScreen {
         filter.setFocused(true);
         filter.action = () -> {
             filterText = filter.get().trim();
-
-            table.clear();
-            initWidgets(registry);
+            filter(true);
         };
 
         table = add(theme.table()).expandX().widget();
 
-        initWidgets(registry);
-    }
-
-    private void initWidgets(Registry<T> registry) {
-        // Left (all)
-        WTable left = abc(pairs -> registry.forEach(t -> {
-            if (skipValue(t) || collection.contains(t)) return;
+        left = theme.virtualList(t -> createRow(t, true, value -> {
+            addValue(value);
 
-            int words = Utils.searchInWords(getValueName(t), filterText);
-            int diff = Utils.searchLevenshteinDefault(getValueName(t), filterText, false);
-            if (words > 0 || diff <= getValueName(t).length() / 2) pairs.add(new Pair<>(t, -diff));
-        }), true, t -> {
-            addValue(registry, t);
+            T v = getAdditionalValue(value);
+            if (v != null) addValue(v);
+        }));
 
-            T v = getAdditionalValue(t);
-            if (v != null) addValue(registry, v);
-        });
+        right = theme.virtualList(t -> createRow(t, false, value -> {
+            removeValue(value);
 
-        if (!left.cells.isEmpty()) table.add(theme.verticalSeparator()).expandWidgetY();
+            T v = getAdditionalValue(value);
+            if (v != null) removeValue(v);
+        }));
 
-        // Right (selected)
-        abc(pairs -> {
-            for (T value : collection) {
-                if (skipValue(value)) continue;
-
-                int words = Utils.searchInWords(getValueName(value), filterText);
-                int diff = Utils.searchLevenshteinDefault(getValueName(value), filterText, false);
-                if (words > 0 || diff <= getValueName(value).length() / 2) pairs.add(new Pair<>(value, -diff));
+        if (entries.isEmpty()) {
+            for (T value : registry) {
+                Entry<T> entry = getEntry(value);
+                if (entry != null) entries.add(entry);
             }
-        }, false, t -> {
-            removeValue(registry, t);
+        }
 
-            T v = getAdditionalValue(t);
-            if (v != null) removeValue(registry, v);
-        });
+        filter(false);
     }
 
-    private void addValue(Registry<T> registry, T value) {
+    private void addValue(T value) {
         if (!collection.contains(value)) {
             collection.add(value);
 
             setting.onChanged();
-            table.clear();
-            initWidgets(registry);
+            filter(true);
         }
     }
 
-    private void removeValue(Registry<T> registry, T value) {
+    private void removeValue(T value) {
         if (collection.remove(value)) {
             setting.onChanged();
-            table.clear();
-            initWidgets(registry);
+            filter(true);
         }
     }
 
-    private WTable abc(Consumer<List<Pair<T, Integer>>> addValues, boolean isLeft, Consumer<T> buttonAction) {
-        // Create
-        Cell<WTable> cell = this.table.add(theme.table()).top();
-        WTable table = cell.widget();
+    private WWidget createRow(T value, boolean isLeft, Consumer<T> buttonAction) {
+        WTable row = theme.table();
+
+        row.add(getValueWidget(value));
+
+        WPressable button = row.add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
+        button.action = () -> buttonAction.accept(value);
+
+        return row;
+    }
+
+    // Filtering
+
+    /** Scores the values against the filter, off the render thread when {@code async} is true. */
+    private void filter(boolean async) {
+        String filter = filterText.toLowerCase(Locale.ROOT);
+        int version = ++filterVersion;
 
-        Consumer<T> forEach = t -> {
-            if (!includeValue(t)) return;
+        // Snapshot of the selected values since the collection is only modified on the render thread
+        List<Entry<T>> selected = new ArrayList<>(collection.size());
+        Set<T> selectedSet = new ReferenceOpenHashSet<>(collection.size());
 
-            table.add(getValueWidget(t));
+        for (T value : collection) {
+            Entry<T> entry = getEntry(value);
+            if (entry == null) continue;
+
+            selected.add(entry);
+            selectedSet.add(value);
+        }
 
-            WPressable button = table.add(isLeft ? theme.plus() : theme.minus()).expandCellX().right().widget();
-            button.action = () -> buttonAction.accept(t);
+        Runnable task = () -> {
+            List<T> left = filter(entries, selectedSet, filter);
+            List<T> right = filter(selected, null, filter);
 
-            table.row();
+            if (async) mc.execute(() -> apply(version, left, right));
+            else apply(version, left, right);
         };
 
-        // Sort
-        List<Pair<T, Integer>> values = new ArrayList<>();
-        addValues.accept(values);
-        if (!filterText.isEmpty()) values.sort(Comparator.comparingInt(value -> -value.getRight()));
-        for (Pair<T, Integer> pair : values) forEach.accept(pair.getLeft());
+        if (async) MeteorExecutor.execute(task);
+        else task.run();
+    }
+
+    private static <T> List<T> filter(List<Entry<T>> entries, Set<T> exclude, String filter) {
+        List<Match<T>> matches = new ArrayList<>();
+
+        for (Entry<T> entry : entries) {
+            if (exclude != null && exclude.contains(entry.value)) continue;
+
+            int diff = Utils.levenshteinDistance(filter, entry.name, 1, 8, 8);
+            if (searchInWords(entry.name, filter) || diff <= entry.name.length() / 2) matches.add(new Match<>(entry.value, diff));
+        }
+
+        if (!filter.isEmpty()) matches.sort(Comparator.comparingInt(Match::diff));
+
+        List<T> values = new ArrayList<>(matches.size());
+        for (Match<T> match : matches) values.add(match.value);
+        return values;
+    }
+
+    private static boolean searchInWords(String text, String filter) {
+        // Same as Utils.searchInWords but both strings are already lowercase
+        if (filter.isEmpty()) return true;
+
+        for (String word : StringUtils.split(filter, ' ')) {
+            if (!text.contains(word)) return false;
+        }
+
+        return true;
+    }
+
+    private void apply(int version, List<T> left, List<T> right) {
+        // A newer filter was started meanwhile
+        if (version != filterVersion) return;
 
-        if (!table.cells.isEmpty()) cell.expandX();
+        this.left.set(left);
+        this.right.set(right);
 
-        return table;
+        table.clear();
+
+        Cell<WVirtualList<T>> cell = table.add(this.left).top();
+        if (!left.isEmpty()) {
+            cell.expandX();
+            table.add(theme.verticalSeparator()).expandWidgetY();
+        }
+
+        cell = table.add(this.right).top();
+        if (!right.isEmpty()) cell.expandX();
+    }
+
+    private Entry<T> getEntry(T value) {
+        Entry<T> entry = entriesByValue.get(value);
+
+        if (entry == null && !entriesByValue.containsKey(value)) {
+            if (!skipValue(value) && includeValue(value)) entry = new Entry<>(value, getValueName(value).toLowerCase(Locale.ROOT));
+            entriesByValue.put(value, entry);
+        }
+
+        return entry;
     }
 
     protected boolean includeValue(T value) {
@@ -152,4 +218,8 @@ public abstract class RegistryListSettingScreen<T> extends WindowScreen {
     protected T getAdditionalValue(T value) {
         return null;
     }
+
+    private record Entry<T>(T value, String name) {}
+
+    private record Match<T>(T value, int diff) {}
 }
@@ -107,7 +107,7 @@ public class MacrosTab extends Tab {
             }
 
             if (isNew) Macros.get().add(value);
-            else Macros.get().save();
+            else Macros.get().markDirty();
 
             return true;
         }
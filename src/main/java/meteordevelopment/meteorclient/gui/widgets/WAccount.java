@@ -61,7 +61,7 @@ public abstract class WAccount extends WHorizontalList {
                 if (account.fetchInfo() && account.login()) {
                     name.set(account.getUsername());
 
-                    Accounts.get().save();
+                    Accounts.get().markDirty();
 
                     screen.taskAfterRender = refreshScreenAction;
                 }
@@ -39,6 +39,7 @@ public abstract class WLabel extends WPressable {
 
     public void set(String text) {
         if (Math.round(theme.textWidth(text, text.length(), title)) != width) invalidate();
+        if (!text.equals(this.text)) repaint();
 
         this.text = text;
     }
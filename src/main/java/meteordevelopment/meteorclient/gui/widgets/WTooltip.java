@@ -24,6 +24,7 @@ public abstract class WTooltip extends WContainer implements WRoot {
 
     @Override
     public void invalidate() {
+        markLayoutDirty();
         valid = false;
     }
 
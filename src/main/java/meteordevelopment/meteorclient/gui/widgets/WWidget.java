@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.gui.widgets;
 
 import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.renderer.GuiDebugRenderer;
 import meteordevelopment.meteorclient.gui.renderer.GuiRenderer;
 import meteordevelopment.meteorclient.gui.utils.BaseWidget;
 
@@ -23,11 +24,20 @@ public abstract class WWidget implements BaseWidget {
     public boolean mouseOver;
     protected double mouseOverTimer;
 
+    // Layout is only recalculated for invalidated widgets, clean widgets keep their measured size and positions
+    private boolean layoutDirty = true;
+    private double measuredWidth, measuredHeight;
+    private double layoutX, layoutY, layoutWidth, layoutHeight;
+
     public void init() {}
 
     public void move(double deltaX, double deltaY) {
         x = Math.round(x + deltaX);
         y = Math.round(y + deltaY);
+
+        // Children are moved too so the laid out positions stay valid
+        layoutX = Math.round(layoutX + deltaX);
+        layoutY = Math.round(layoutY + deltaY);
     }
 
     @Override
@@ -42,6 +52,14 @@ public abstract class WWidget implements BaseWidget {
     // Layout
 
     public void calculateSize() {
+        if (!layoutDirty) {
+            // Parents can expand the widget while positioning it
+            width = measuredWidth;
+            height = measuredHeight;
+            return;
+        }
+
+        calculateChildSizes();
         onCalculateSize();
 
         double minWidth = theme.scale(this.minWidth);
@@ -49,6 +67,15 @@ public abstract class WWidget implements BaseWidget {
 
         width = Math.round(width);
         height = Math.round(height);
+
+        measuredWidth = width;
+        measuredHeight = height;
+
+        GuiDebugRenderer.onMeasured();
+    }
+
+    protected void calculateChildSizes() {
+
     }
 
     protected void onCalculateSize() {
@@ -59,7 +86,22 @@ public abstract class WWidget implements BaseWidget {
         x = Math.round(x);
         y = Math.round(y);
 
+        if (!layoutDirty && x == layoutX && y == layoutY && width == layoutWidth && height == layoutHeight) return;
+
         onCalculateWidgetPositions();
+        calculateChildPositions();
+
+        layoutX = x;
+        layoutY = y;
+        layoutWidth = width;
+        layoutHeight = height;
+        layoutDirty = false;
+
+        GuiDebugRenderer.onPositioned();
+    }
+
+    protected void calculateChildPositions() {
+
     }
 
     protected void onCalculateWidgetPositions() {
@@ -126,8 +168,30 @@ public abstract class WWidget implements BaseWidget {
     // Other
 
     public void invalidate() {
+        markLayoutDirty();
+
         WWidget root = getRoot();
-        if (root != null) root.invalidate();
+        if (root != null && root != this) root.invalidate();
+    }
+
+    protected void markLayoutDirty() {
+        // Parents size themselves around this widget so they need to be measured again too
+        for (WWidget widget = this; widget != null; widget = widget.parent) widget.layoutDirty = true;
+    }
+
+    /** Makes the whole subtree recalculate its layout, needed when something all widgets depend on changes. */
+    public void invalidateAll() {
+        markAllDirty();
+        invalidate();
+    }
+
+    public void markAllDirty() {
+        layoutDirty = true;
+    }
+
+    /** Requests the widget to be drawn again when it is rendered from a cached frame, see {@link GuiRenderer#renderCached(WWidget, boolean, Runnable)}. */
+    public void repaint() {
+        if (parent != null) parent.repaint();
     }
 
     protected WWidget getRoot() {
@@ -62,9 +62,8 @@ public abstract class WContainer extends WWidget {
     // Layout
 
     @Override
-    public void calculateSize() {
+    protected void calculateChildSizes() {
         for (Cell<?> cell : cells) cell.widget().calculateSize();
-        super.calculateSize();
     }
 
     @Override
@@ -79,8 +78,7 @@ public abstract class WContainer extends WWidget {
     }
 
     @Override
-    public void calculateWidgetPositions() {
-        super.calculateWidgetPositions();
+    protected void calculateChildPositions() {
         for (Cell<?> cell : cells) cell.widget().calculateWidgetPositions();
     }
 
@@ -97,6 +95,12 @@ public abstract class WContainer extends WWidget {
         }
     }
 
+    @Override
+    public void markAllDirty() {
+        super.markAllDirty();
+        for (Cell<?> cell : cells) cell.widget().markAllDirty();
+    }
+
     // Rendering
 
     @Override
@@ -104,10 +108,11 @@ public abstract class WContainer extends WWidget {
         if (super.render(renderer, mouseX, mouseY, delta)) return true;
 
         for (Cell<?> cell : cells) {
-            double y = cell.widget().y;
-            if (y > getWindowHeight()) break;
+            WWidget widget = cell.widget();
+            if (widget.y > getWindowHeight()) break;
 
-            if (y + cell.widget().height > 0) renderWidget(cell.widget(), renderer, mouseX, mouseY, delta);
+            // Skip children above the window and children completely outside the current scissor, like the rows of a scrolled view
+            if (widget.y + widget.height > 0 && renderer.isVisible(widget.x, widget.y, widget.width, widget.height)) renderWidget(widget, renderer, mouseX, mouseY, delta);
         }
 
         return false;
@@ -0,0 +1,181 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.widgets.containers;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import meteordevelopment.meteorclient.gui.utils.Cell;
+import meteordevelopment.meteorclient.gui.widgets.WWidget;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static meteordevelopment.meteorclient.utils.Utils.getWindowHeight;
+
+/**
+ * Vertical list of equally tall rows which only creates and lays out the widgets of rows inside the visible area of
+ * the closest {@link WView}. Rows leaving the visible area are kept around for a while so scrolling back doesn't
+ * recreate them, changing the values keeps the rows of values which are still present.
+ */
+public class WVirtualList<T> extends WContainer {
+    private static final int EXTRA_ROWS = 2;
+    private static final int CACHED_ROWS = 64;
+
+    public double spacing = 3;
+
+    private final Function<T, WWidget> rowFactory;
+    private final Reference2ObjectMap<T, WWidget> rows = new Reference2ObjectOpenHashMap<>();
+
+    private List<T> values = List.of();
+    private double rowWidth, rowHeight;
+    private int first, last = -1;
+
+    public WVirtualList(Function<T, WWidget> rowFactory) {
+        this.rowFactory = rowFactory;
+    }
+
+    public void set(List<T> values) {
+        this.values = values;
+
+        Set<T> present = new ReferenceOpenHashSet<>(values);
+        rows.keySet().removeIf(value -> !present.contains(value));
+        cells.clear();
+        last = -1;
+
+        invalidate();
+    }
+
+    public List<T> get() {
+        return values;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    protected double spacing() {
+        return theme.scale(spacing);
+    }
+
+    private double stride() {
+        return rowHeight + spacing();
+    }
+
+    // Layout
+
+    @Override
+    protected void calculateChildSizes() {
+        // Rows are measured when they are created
+    }
+
+    @Override
+    protected void onCalculateSize() {
+        if (rowHeight == 0 && !values.isEmpty()) getRow(values.get(0));
+
+        width = rowWidth;
+        height = values.isEmpty() ? 0 : values.size() * stride() - spacing();
+    }
+
+    @Override
+    protected void onCalculateWidgetPositions() {
+        updateRows(true);
+    }
+
+    @Override
+    protected void calculateChildPositions() {
+        // Visible rows are positioned when they are created
+    }
+
+    @Override
+    public void move(double deltaX, double deltaY) {
+        super.move(deltaX, deltaY);
+        updateRows(false);
+    }
+
+    private void updateRows(boolean force) {
+        if (values.isEmpty() || rowHeight == 0) {
+            cells.clear();
+            return;
+        }
+
+        // Visible area
+        double top = 0, bottom = getWindowHeight();
+
+        for (WWidget widget = parent; widget != null; widget = widget.parent) {
+            if (widget instanceof WView view) {
+                top = view.y;
+                bottom = view.y + view.height;
+                break;
+            }
+        }
+
+        double stride = stride();
+        int first = Math.max((int) Math.floor((top - y) / stride) - EXTRA_ROWS, 0);
+        int last = Math.min((int) Math.floor((bottom - y) / stride) + EXTRA_ROWS, values.size() - 1);
+
+        if (!force && first == this.first && last == this.last) return;
+        this.first = first;
+        this.last = last;
+
+        // Create and position visible rows
+        double rowWidth = this.rowWidth, rowHeight = this.rowHeight;
+        cells.clear();
+
+        for (int i = first; i <= last; i++) {
+            WWidget widget = getRow(values.get(i));
+
+            Cell<WWidget> cell = new Cell<>(widget).expandX();
+            cell.x = x;
+            cell.y = y + i * stride;
+            cell.width = width;
+            cell.height = this.rowHeight;
+
+            cell.alignWidget();
+            widget.calculateWidgetPositions();
+
+            cells.add(cell);
+        }
+
+        // Forget rows far outside the visible area
+        if (rows.size() > (last - first + 1) + CACHED_ROWS) {
+            int from = Math.max(first - CACHED_ROWS / 2, 0);
+            int to = Math.min(last + CACHED_ROWS / 2, values.size() - 1);
+
+            Reference2ObjectMap<T, WWidget> keep = new Reference2ObjectOpenHashMap<>(to - from + 1);
+            for (int i = from; i <= to; i++) {
+                WWidget widget = rows.get(values.get(i));
+                if (widget != null) keep.put(values.get(i), widget);
+            }
+
+            rows.clear();
+            rows.putAll(keep);
+        }
+
+        // A newly created row is bigger than the previous ones
+        if (this.rowWidth > rowWidth || this.rowHeight > rowHeight) invalidate();
+    }
+
+    private WWidget getRow(T value) {
+        WWidget widget = rows.get(value);
+
+        if (widget == null) {
+            widget = rowFactory.apply(value);
+            widget.parent = this;
+            widget.theme = theme;
+            widget.init();
+            widget.calculateSize();
+
+            rowWidth = Math.max(rowWidth, widget.width);
+            rowHeight = Math.max(rowHeight, widget.height);
+
+            rows.put(value, widget);
+        }
+
+        return widget;
+    }
+}
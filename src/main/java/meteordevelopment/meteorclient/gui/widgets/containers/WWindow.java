@@ -10,6 +10,7 @@ import meteordevelopment.meteorclient.gui.utils.Cell;
 import meteordevelopment.meteorclient.gui.utils.WindowConfig;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.gui.widgets.pressable.WTriangle;
+import meteordevelopment.meteorclient.systems.config.Config;
 import net.minecraft.util.math.MathHelper;
 
 import java.util.function.Consumer;
@@ -19,6 +20,9 @@ import static meteordevelopment.meteorclient.utils.Utils.getWindowWidth;
 import static org.lwjgl.glfw.GLFW.GLFW_MOUSE_BUTTON_RIGHT;
 
 public abstract class WWindow extends WVerticalList {
+    // How long a window is drawn directly instead of being cached after a change so hover and press animations can finish
+    private static final double REPAINT_TIME = 0.5;
+
     public double padding = 8;
     public Consumer<WContainer> beforeHeaderInit;
     public String id;
@@ -40,6 +44,9 @@ public abstract class WWindow extends WVerticalList {
 
     private boolean propagateEventsExpanded;
 
+    private boolean repaint = true;
+    private double repaintTimer;
+
     public WWindow(WWidget icon, String title) {
         this.icon = icon;
         this.title = title;
@@ -107,6 +114,13 @@ public abstract class WWindow extends WVerticalList {
         if (moved) {
             move(movedX - x, movedY - y);
         }
+
+        repaint = true;
+    }
+
+    @Override
+    public void repaint() {
+        repaint = true;
     }
 
     @Override
@@ -114,6 +128,26 @@ public abstract class WWindow extends WVerticalList {
         if (!visible) return true;
 
         boolean scissor = (animProgress != 0 && animProgress != 1) || (expanded && animProgress != 1);
+
+        if (!scissor && Config.get().cacheGuiWindows.get() && renderer.canCache()) {
+            // Hovered windows are always drawn since hovering shows effects and tooltips without any other event
+            if (repaint || isOver(mouseX, mouseY)) repaintTimer = REPAINT_TIME;
+            else repaintTimer -= delta;
+
+            repaint = false;
+
+            if (repaintTimer <= 0) {
+                renderer.renderCached(this, false, () -> super.render(renderer, mouseX, mouseY, delta));
+                return false;
+            }
+
+            // The window changes every frame, going through the framebuffer would only add a copy
+            renderer.invalidateCached(this);
+            return super.render(renderer, mouseX, mouseY, delta);
+        }
+
+        repaint = true;
+
         if (scissor) renderer.scissorStart(x, y, width, (height - header.height) * animProgress + header.height);
         boolean toReturn = super.render(renderer, mouseX, mouseY, delta);
         if (scissor) renderer.scissorEnd();
@@ -121,6 +155,44 @@ public abstract class WWindow extends WVerticalList {
         return toReturn;
     }
 
+    // Any input can change how widgets in the window look
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button, boolean used) {
+        repaint = true;
+        return super.mouseClicked(mouseX, mouseY, button, used);
+    }
+
+    @Override
+    public boolean mouseReleased(double mouseX, double mouseY, int button) {
+        repaint = true;
+        return super.mouseReleased(mouseX, mouseY, button);
+    }
+
+    @Override
+    public boolean mouseScrolled(double amount) {
+        repaint = true;
+        return super.mouseScrolled(amount);
+    }
+
+    @Override
+    public boolean keyPressed(int key, int modifiers) {
+        repaint = true;
+        return super.keyPressed(key, modifiers);
+    }
+
+    @Override
+    public boolean keyRepeated(int key, int modifiers) {
+        repaint = true;
+        return super.keyRepeated(key, modifiers);
+    }
+
+    @Override
+    public boolean charTyped(char c) {
+        repaint = true;
+        return super.charTyped(c);
+    }
+
     @Override
     protected void renderWidget(WWidget widget, GuiRenderer renderer, double mouseX, double mouseY, double delta) {
         if (expanded || animProgress > 0 || widget instanceof WHeader) {
@@ -180,7 +180,9 @@ public abstract class WDropdown<T> extends WPressable {
 
     protected abstract static class WDropdownRoot extends WVerticalList implements WRoot {
         @Override
-        public void invalidate() {}
+        public void invalidate() {
+            markLayoutDirty();
+        }
     }
 
     protected abstract class WDropdownValue extends WPressable {
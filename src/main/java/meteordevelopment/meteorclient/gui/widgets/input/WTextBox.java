@@ -522,7 +522,12 @@ public abstract class WTextBox extends WWidget {
 
     @Override
     public boolean render(GuiRenderer renderer, double mouseX, double mouseY, double delta) {
-        if (isFocused()) GuiKeyEvents.canUseKeys = false;
+        if (isFocused()) {
+            GuiKeyEvents.canUseKeys = false;
+
+            // Blinking cursor
+            repaint();
+        }
 
         if (completionsW != null && focused) {
             renderer.absolutePost(() -> {
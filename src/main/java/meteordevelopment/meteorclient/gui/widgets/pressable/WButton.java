@@ -38,6 +38,7 @@ public abstract class WButton extends WPressable {
 
     public void set(String text) {
         if (this.text == null || Math.round(theme.textWidth(text)) != textWidth) invalidate();
+        if (!text.equals(this.text)) repaint();
 
         this.text = text;
     }
@@ -14,6 +14,7 @@ import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.events.world.ServerConnectEndEvent;
 import meteordevelopment.meteorclient.systems.proxies.Proxies;
 import meteordevelopment.meteorclient.systems.proxies.Proxy;
+import meteordevelopment.meteorclient.utils.network.PacketListeners;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.NetworkSide;
 import net.minecraft.network.PacketCallbacks;
@@ -23,6 +24,7 @@ import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -38,9 +40,22 @@ public abstract class ClientConnectionMixin {
     private void onHandlePacket(ChannelHandlerContext channelHandlerContext, Packet<?> packet, CallbackInfo ci) {
         if (packet instanceof BundleS2CPacket bundle) {
             for (Iterator<Packet<? super ClientPlayPacketListener>> it = bundle.getPackets().iterator(); it.hasNext(); ) {
-                if (MeteorClient.EVENT_BUS.post(new PacketEvent.Receive(it.next(), (ClientConnection) (Object) this)).isCancelled()) it.remove();
+                if (postReceive(it.next())) it.remove();
             }
-        } else if (MeteorClient.EVENT_BUS.post(new PacketEvent.Receive(packet, (ClientConnection) (Object) this)).isCancelled()) ci.cancel();
+        } else if (postReceive(packet)) ci.cancel();
+    }
+
+    @Unique
+    private boolean postReceive(Packet<?> packet) {
+        PacketEvent.Receive event = PacketEvent.Receive.get(packet, (ClientConnection) (Object) this);
+
+        PacketListeners.RECEIVE.dispatch(packet, event);
+        if (!event.isCancelled()) MeteorClient.EVENT_BUS.post(event);
+
+        boolean cancelled = event.isCancelled();
+        event.free();
+
+        return cancelled;
     }
 
     @Inject(method = "connect(Ljava/net/InetSocketAddress;ZLnet/minecraft/network/ClientConnection;)Lio/netty/channel/ChannelFuture;", at = @At("HEAD"))
@@ -50,14 +65,23 @@ public abstract class ClientConnectionMixin {
 
     @Inject(at = @At("HEAD"), method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;)V", cancellable = true)
     private void onSendPacketHead(Packet<?> packet, PacketCallbacks callbacks, CallbackInfo ci) {
-        if (MeteorClient.EVENT_BUS.post(new PacketEvent.Send(packet, (ClientConnection) (Object) this)).isCancelled()) {
-            ci.cancel();
-        }
+        PacketEvent.Send event = PacketEvent.Send.get(packet, (ClientConnection) (Object) this);
+
+        PacketListeners.SEND.dispatch(packet, event);
+        if (!event.isCancelled()) MeteorClient.EVENT_BUS.post(event);
+
+        if (event.isCancelled()) ci.cancel();
+        event.free();
     }
 
     @Inject(method = "send(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;)V", at = @At("TAIL"))
     private void onSendPacketTail(Packet<?> packet, @Nullable PacketCallbacks callbacks, CallbackInfo ci) {
-        MeteorClient.EVENT_BUS.post(new PacketEvent.Sent(packet, (ClientConnection) (Object) this));
+        PacketEvent.Sent event = PacketEvent.Sent.get(packet, (ClientConnection) (Object) this);
+
+        PacketListeners.SENT.dispatch(packet, event);
+        MeteorClient.EVENT_BUS.post(event);
+
+        event.free();
     }
 
     @Inject(method = "addHandlers", at = @At("RETURN"))
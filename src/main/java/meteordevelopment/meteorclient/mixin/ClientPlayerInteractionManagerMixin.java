@@ -11,6 +11,7 @@ import meteordevelopment.meteorclient.events.entity.player.*;
 import meteordevelopment.meteorclient.mixininterface.IClientPlayerInteractionManager;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.InventoryTweaks;
+import meteordevelopment.meteorclient.utils.player.InventoryIndex;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
@@ -94,6 +95,17 @@ public abstract class ClientPlayerInteractionManagerMixin implements IClientPlay
         }
     }
 
+    // Clicking and using items change the inventory locally before the server confirms it
+    @Inject(method = "clickSlot", at = @At("RETURN"))
+    private void onClickSlotReturn(CallbackInfo info) {
+        InventoryIndex.markDirty();
+    }
+
+    @Inject(method = {"interactBlock", "interactItem"}, at = @At("RETURN"))
+    private void onInteractReturn(CallbackInfoReturnable<ActionResult> info) {
+        InventoryIndex.markDirty();
+    }
+
     @Inject(method = "attackBlock", at = @At("HEAD"), cancellable = true)
     private void onAttackBlock(BlockPos blockPos, Direction direction, CallbackInfoReturnable<Boolean> info) {
         if (MeteorClient.EVENT_BUS.post(StartBreakingBlockEvent.get(blockPos, direction)).isCancelled()) info.cancel();
@@ -0,0 +1,27 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.mixin;
+
+import meteordevelopment.meteorclient.renderer.RenderStats;
+import net.minecraft.client.gui.hud.DebugHud;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(DebugHud.class)
+public abstract class DebugHudMixin {
+    @Inject(method = "getLeftText", at = @At("RETURN"))
+    private void onGetLeftText(CallbackInfoReturnable<List<String>> info) {
+        List<String> lines = info.getReturnValue();
+
+        lines.add("");
+        lines.add("[Meteor] Draw calls: %d, State changes: %d".formatted(RenderStats.getDrawCalls(), RenderStats.getStateChanges()));
+        lines.add("[Meteor] Text layouts: %d hits, %d misses".formatted(RenderStats.getTextLayoutHits(), RenderStats.getTextLayoutMisses()));
+    }
+}
@@ -13,6 +13,7 @@ import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.render.RenderAfterWorldEvent;
 import meteordevelopment.meteorclient.mixininterface.IVec3d;
+import meteordevelopment.meteorclient.renderer.RenderQueue;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.player.NoMiningTrace;
@@ -67,6 +68,9 @@ public abstract class GameRendererMixin {
     @Unique
     private Renderer3D renderer;
 
+    @Unique
+    private RenderQueue queue;
+
     @Unique
     private final MatrixStack matrices = new MatrixStack();
 
@@ -78,8 +82,13 @@ public abstract class GameRendererMixin {
 
         // Create renderer and event
 
-        if (renderer == null) renderer = new Renderer3D();
-        Render3DEvent event = Render3DEvent.get(matrixStack, renderer, tickDelta, camera.getPos().x, camera.getPos().y, camera.getPos().z);
+        if (renderer == null) {
+            // Modules rebuild this every frame, retained geometry uses its own static Renderer3D
+            renderer = new Renderer3D();
+            queue = new RenderQueue();
+        }
+
+        Render3DEvent event = Render3DEvent.get(matrixStack, renderer, queue, tickDelta, camera.getPos().x, camera.getPos().y, camera.getPos().z);
 
         // Call utility classes
 
@@ -102,7 +111,10 @@ public abstract class GameRendererMixin {
 
         renderer.begin();
         MeteorClient.EVENT_BUS.post(event);
-        renderer.render(matrixStack);
+
+        // Everything drawn during the event is sorted by state and submitted at once
+        renderer.submit(queue);
+        queue.render(matrixStack);
 
         // Revert model view matrix
 
@@ -0,0 +1,26 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.mixin;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import meteordevelopment.meteorclient.renderer.GL;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(GlStateManager.class)
+public abstract class GlStateManagerMixin {
+    @Inject(method = "_glUseProgram", at = @At("HEAD"))
+    private static void onUseProgram(int program, CallbackInfo info) {
+        GL.trackProgram(program);
+    }
+
+    @Inject(method = "_glBindVertexArray", at = @At("HEAD"))
+    private static void onBindVertexArray(int array, CallbackInfo info) {
+        GL.trackVertexArray(array);
+    }
+}
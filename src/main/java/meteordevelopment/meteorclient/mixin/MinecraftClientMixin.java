@@ -17,6 +17,8 @@ import meteordevelopment.meteorclient.events.game.ResolutionChangedEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.gui.WidgetScreen;
 import meteordevelopment.meteorclient.mixininterface.IMinecraftClient;
+import meteordevelopment.meteorclient.renderer.GL;
+import meteordevelopment.meteorclient.renderer.RenderStats;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.Utils;
@@ -171,6 +173,9 @@ public abstract class MinecraftClientMixin implements IMinecraftClient {
 
         Utils.frameTime = (time - lastTime) / 1000.0;
         lastTime = time;
+
+        RenderStats.endFrame();
+        GL.invalidateState();
     }
 
     // Interface
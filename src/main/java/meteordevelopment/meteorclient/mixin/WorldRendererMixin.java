@@ -5,11 +5,13 @@
 
 package meteordevelopment.meteorclient.mixin;
 
+import com.llamalad7.mixinextras.sugar.Local;
 import it.unimi.dsi.fastutil.Stack;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import meteordevelopment.meteorclient.mixininterface.IWorldRenderer;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.render.BlockSelection;
+import meteordevelopment.meteorclient.systems.modules.render.ESP;
 import meteordevelopment.meteorclient.systems.modules.render.Freecam;
 import meteordevelopment.meteorclient.systems.modules.render.Fullbright;
 import meteordevelopment.meteorclient.systems.modules.render.NoRender;
@@ -53,6 +55,18 @@ public abstract class WorldRendererMixin implements IWorldRenderer {
         return Modules.get().isActive(Freecam.class) || spectator;
     }
 
+    // ESP
+
+    @Inject(method = "render", at = @At("HEAD"))
+    private void onRenderHead(CallbackInfo info) {
+        Modules.get().get(ESP.class).beginFrame();
+    }
+
+    @ModifyVariable(method = "renderEntity", at = @At("HEAD"), argsOnly = true)
+    private VertexConsumerProvider renderEntityModifyVertexConsumers(VertexConsumerProvider vertexConsumers, @Local(argsOnly = true) Entity entity) {
+        return Modules.get().get(ESP.class).getVertexConsumers(entity, vertexConsumers);
+    }
+
     // No Render
 
     @Inject(method = "renderWeather", at = @At("HEAD"), cancellable = true)
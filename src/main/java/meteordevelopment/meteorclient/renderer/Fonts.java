@@ -20,6 +20,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
@@ -35,19 +36,16 @@ public class Fonts {
     private Fonts() {
     }
 
+    // Font families found during startup
+    private static CompletableFuture<List<FontFamily>> scanTask;
+
     @PreInit(dependencies = Shaders.class)
     public static void refresh() {
-        FONT_FAMILIES.clear();
-
-        for (String builtinFont : BUILTIN_FONTS) {
-            FontUtils.loadBuiltin(FONT_FAMILIES, builtinFont);
-        }
+        List<FontFamily> fontFamilies = scanTask != null ? scanTask.join() : scan();
+        scanTask = null;
 
-        for (String fontPath : FontUtils.getSearchPaths()) {
-            FontUtils.loadSystem(FONT_FAMILIES, new File(fontPath));
-        }
-
-        FONT_FAMILIES.sort(Comparator.comparing(FontFamily::getName));
+        FONT_FAMILIES.clear();
+        FONT_FAMILIES.addAll(fontFamilies);
 
         MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
 
@@ -58,6 +56,27 @@ public class Fonts {
         load(config != null ? config.font.get() : DEFAULT_FONT);
     }
 
+    /** Uses the font families found by the task in the next {@link #refresh()} instead of searching them again. */
+    public static void setScanTask(CompletableFuture<List<FontFamily>> task) {
+        scanTask = task;
+    }
+
+    /** Reads the builtin and system fonts, can be called from any thread. */
+    public static List<FontFamily> scan() {
+        List<FontFamily> fontFamilies = new ArrayList<>();
+
+        for (String builtinFont : BUILTIN_FONTS) {
+            FontUtils.loadBuiltin(fontFamilies, builtinFont);
+        }
+
+        for (String fontPath : FontUtils.getSearchPaths()) {
+            FontUtils.loadSystem(fontFamilies, new File(fontPath));
+        }
+
+        fontFamilies.sort(Comparator.comparing(FontFamily::getName));
+        return fontFamilies;
+    }
+
     public static void load(FontFace fontFace) {
         if (RENDERER != null) {
             if (RENDERER.fontFace.equals(fontFace)) return;
@@ -13,6 +13,7 @@ public class Framebuffer {
     public int texture;
     public double sizeMulti = 1; // Multiplier for the size of the framebuffer
     public int width, height; // Dimensions of the framebuffer
+    private boolean fixedSize;
 
     /**
      * Creates a new framebuffer with a custom size multiplier
@@ -28,6 +29,20 @@ public class Framebuffer {
         init();
     }
 
+    /**
+     * Creates a new framebuffer with a fixed size and an alpha channel
+     *
+     * @param width The width of the framebuffer
+     * @param height The height of the framebuffer
+     */
+    public Framebuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.fixedSize = true;
+
+        init();
+    }
+
     private void init() {
         id = GL.genFramebuffer();
         bind();
@@ -42,10 +57,13 @@ public class Framebuffer {
         GL.textureParam(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 
         // Set the width and height of the framebuffer
-        width = (int) (mc.getWindow().getFramebufferWidth() * sizeMulti);
-        height = (int) (mc.getWindow().getFramebufferHeight() * sizeMulti);
+        if (!fixedSize) {
+            width = (int) (mc.getWindow().getFramebufferWidth() * sizeMulti);
+            height = (int) (mc.getWindow().getFramebufferHeight() * sizeMulti);
+        }
 
-        GL.textureImage2D(GL_TEXTURE_2D, 0, GL_RGB, width, height, 0, GL_RGB, GL_UNSIGNED_BYTE, null);
+        int format = fixedSize ? GL_RGBA : GL_RGB;
+        GL.textureImage2D(GL_TEXTURE_2D, 0, format, width, height, 0, format, GL_UNSIGNED_BYTE, null);
         GL.framebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, texture, 0);
 
         unbind();
@@ -67,9 +85,17 @@ public class Framebuffer {
     }
 
     public void resize() {
+        destroy();
+        init();
+    }
+
+    /** @return gpu memory in bytes used by the color texture */
+    public long getMemoryUsage() {
+        return (long) width * height * 4;
+    }
+
+    public void destroy() {
         GL.deleteFramebuffer(id);
         GL.deleteTexture(texture);
-
-        init();
     }
 }
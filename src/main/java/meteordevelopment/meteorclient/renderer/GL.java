@@ -34,6 +34,10 @@ public class GL {
     public static int CURRENT_IBO;
     private static int prevIbo;
 
+    // Shadow state used to skip redundant calls, program and vertex array bindings done by vanilla are tracked by GlStateManagerMixin
+    private static int currentProgram = -1, currentVao = -1;
+    private static boolean lineSmooth;
+
     private GL() {
     }
 
@@ -63,6 +67,7 @@ public class GL {
 
     public static void deleteVertexArray(int vao) {
         GlStateManager._glDeleteVertexArrays(vao);
+        if (currentVao == vao) currentVao = 0;
     }
 
     public static void deleteShader(int shader) {
@@ -79,12 +84,17 @@ public class GL {
 
     public static void deleteProgram(int program) {
         GlStateManager.glDeleteProgram(program);
+        if (currentProgram == program) currentProgram = 0;
     }
 
     // Binding
 
     public static void bindVertexArray(int vao) {
-        GlStateManager._glBindVertexArray(vao);
+        if (vao != currentVao) {
+            GlStateManager._glBindVertexArray(vao);
+            RenderStats.stateChange();
+        }
+
         BufferRendererAccessor.setCurrentVertexBuffer(null);
     }
 
@@ -107,8 +117,22 @@ public class GL {
         GlStateManager._glBufferData(target, data, usage);
     }
 
+    public static void bufferData(int target, long size, int usage) {
+        GlStateManager._glBufferData(target, size, usage);
+    }
+
+    public static void bufferSubData(int target, long offset, ByteBuffer data) {
+        glBufferSubData(target, offset, data);
+    }
+
     public static void drawElements(int mode, int first, int type) {
         GlStateManager._drawElements(mode, first, type, 0);
+        RenderStats.drawCall();
+    }
+
+    public static void drawElementsBaseVertex(int mode, int count, int type, long indicesOffset, int baseVertex) {
+        glDrawElementsBaseVertex(mode, count, type, indicesOffset, baseVertex);
+        RenderStats.drawCall();
     }
 
     // Vertex attributes
@@ -158,7 +182,10 @@ public class GL {
     }
 
     public static void useProgram(int program) {
+        if (program == currentProgram) return;
+
         GlStateManager._glUseProgram(program);
+        RenderStats.stateChange();
     }
 
     public static void viewport(int x, int y, int width, int height) {
@@ -236,13 +263,19 @@ public class GL {
     }
 
     public static void clear(int mask) {
-        GlStateManager._clearColor(0, 0, 0, 1);
+        clear(mask, 0, 0, 0, 1);
+    }
+
+    public static void clear(int mask, float r, float g, float b, float a) {
+        GlStateManager._clearColor(r, g, b, a);
         GlStateManager._clear(mask);
     }
 
     // State
 
     public static void saveState() {
+        invalidateState();
+
         depthSaved = DEPTH.meteor$get();
         blendSaved = BLEND.meteor$get();
         cullSaved = CULL.meteor$get();
@@ -256,43 +289,84 @@ public class GL {
         SCISSOR.meteor$set(scissorSaved);
 
         disableLineSmooth();
+        invalidateState();
+    }
+
+    /**
+     * Forgets the shadowed program and vertex array bindings, so the next bind is always issued. Other mods or vanilla
+     * code can bind them with direct gl calls which the shadow state doesn't see.
+     */
+    public static void invalidateState() {
+        currentProgram = -1;
+        currentVao = -1;
     }
 
     public static void enableDepth() {
+        if (!DEPTH.meteor$get()) RenderStats.stateChange();
         GlStateManager._enableDepthTest();
     }
     public static void disableDepth() {
+        if (DEPTH.meteor$get()) RenderStats.stateChange();
         GlStateManager._disableDepthTest();
     }
 
     public static void enableBlend() {
+        if (!BLEND.meteor$get()) RenderStats.stateChange();
         GlStateManager._enableBlend();
-        GlStateManager._blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+
+        // Same as vanilla's default, keeps the alpha of transparent framebuffers correct
+        GlStateManager._blendFuncSeparate(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA, GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /** Blending for sources which are already multiplied by their alpha, like framebuffers rendered with blending. */
+    public static void blendPremultiplied() {
+        GlStateManager._blendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
     }
     public static void disableBlend() {
+        if (BLEND.meteor$get()) RenderStats.stateChange();
         GlStateManager._disableBlend();
     }
 
     public static void enableCull() {
+        if (!CULL.meteor$get()) RenderStats.stateChange();
         GlStateManager._enableCull();
     }
     public static void disableCull() {
+        if (CULL.meteor$get()) RenderStats.stateChange();
         GlStateManager._disableCull();
     }
 
     public static void enableScissorTest() {
+        if (!SCISSOR.meteor$get()) RenderStats.stateChange();
         GlStateManager._enableScissorTest();
     }
     public static void disableScissorTest() {
+        if (SCISSOR.meteor$get()) RenderStats.stateChange();
         GlStateManager._disableScissorTest();
     }
 
     public static void enableLineSmooth() {
+        if (lineSmooth) return;
+
         glEnable(GL_LINE_SMOOTH);
         glLineWidth(1);
+        lineSmooth = true;
+        RenderStats.stateChange();
     }
     public static void disableLineSmooth() {
+        if (!lineSmooth) return;
+
         glDisable(GL_LINE_SMOOTH);
+        lineSmooth = false;
+        RenderStats.stateChange();
+    }
+
+    public static void trackProgram(int program) {
+        currentProgram = program;
+    }
+
+    public static void trackVertexArray(int vao) {
+        currentVao = vao;
     }
 
     public static void bindTexture(Identifier id) {
@@ -303,6 +377,7 @@ public class GL {
     public static void bindTexture(int i, int slot) {
         GlStateManager._activeTexture(GL_TEXTURE0 + slot);
         GlStateManager._bindTexture(i);
+        RenderStats.stateChange();
     }
     public static void bindTexture(int i) {
         bindTexture(i, 0);
@@ -0,0 +1,231 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import meteordevelopment.meteorclient.utils.render.color.Color;
+
+/**
+ * Merges the exposed faces of voxels inside a 16x16x16 section into rectangles and finds the outline edges around
+ * them. Positions are given on a face plane of an axis ({@code 0} = x, {@code 1} = y, {@code 2} = z) and the two
+ * other axes {@code u = (axis + 1) % 3} and {@code v = (axis + 2) % 3}, see {@link #toWorld(int[], int, int, int, int)}.
+ * A mesher keeps scratch arrays and can't be used by multiple threads at once.
+ */
+public class GreedyMesher {
+    private static final int SIZE = 16;
+    private static final int PADDED = SIZE + 2;
+
+    // Exposed faces of one slice with a border of one cell from the neighbouring sections
+    private final boolean[] exposed = new boolean[PADDED * PADDED];
+    private final boolean[] remaining = new boolean[SIZE * SIZE];
+    private final int[] pos = new int[3];
+    private final int[] base = new int[3];
+
+    private VoxelPredicate voxels;
+    private Output output;
+
+    /**
+     * Meshes all voxels inside the section, the predicate is also called for voxels around it to know which faces
+     * are covered. Edges shared with other sections are only added by the section containing the exposed face.
+     */
+    public void mesh(int sectionX, int sectionY, int sectionZ, VoxelPredicate voxels, Output output) {
+        this.voxels = voxels;
+        this.output = output;
+
+        base[0] = sectionX << 4;
+        base[1] = sectionY << 4;
+        base[2] = sectionZ << 4;
+
+        for (int axis = 0; axis < 3; axis++) {
+            for (int dir = -1; dir <= 1; dir += 2) {
+                for (int slice = 0; slice < SIZE; slice++) {
+                    if (!fillSlice(axis, dir, slice)) continue;
+
+                    int plane = base[axis] + slice + (dir > 0 ? 1 : 0);
+
+                    mergeQuads(axis, plane);
+                    addLines(axis, plane);
+                }
+            }
+        }
+
+        this.voxels = null;
+        this.output = null;
+    }
+
+    /** Converts a position on a face plane to world coordinates. */
+    public static void toWorld(int[] pos, int axis, int plane, int u, int v) {
+        pos[axis] = plane;
+        pos[(axis + 1) % 3] = u;
+        pos[(axis + 2) % 3] = v;
+    }
+
+    /** Adds a quad with a single color, as given to {@link Output#quad(int, int, int, int, int, int)}. */
+    public static void quad(Renderer3D renderer, int axis, int plane, int u1, int v1, int u2, int v2, int[] pos, Color color) {
+        toWorld(pos, axis, plane, u1, v1);
+        double x1 = pos[0], y1 = pos[1], z1 = pos[2];
+        toWorld(pos, axis, plane, u1, v2);
+        double x2 = pos[0], y2 = pos[1], z2 = pos[2];
+        toWorld(pos, axis, plane, u2, v2);
+        double x3 = pos[0], y3 = pos[1], z3 = pos[2];
+        toWorld(pos, axis, plane, u2, v1);
+
+        renderer.quad(x1, y1, z1, x2, y2, z2, x3, y3, z3, pos[0], pos[1], pos[2], color);
+    }
+
+    /** @return false if no voxel inside the section has an exposed face in the slice */
+    private boolean fillSlice(int axis, int dir, int slice) {
+        boolean any = false;
+
+        for (int u = 0; u < SIZE; u++) {
+            for (int v = 0; v < SIZE; v++) {
+                boolean e = isExposed(axis, dir, slice, u, v);
+
+                exposed[(u + 1) * PADDED + v + 1] = e;
+                remaining[u * SIZE + v] = e;
+                any |= e;
+            }
+        }
+
+        if (!any) return false;
+
+        // Border, only needed to find the outline edges
+        for (int i = -1; i <= SIZE; i++) {
+            exposed[i + 1] = isExposed(axis, dir, slice, -1, i);
+            exposed[SIZE + 1 + (i + 1) * PADDED] = isExposed(axis, dir, slice, i, SIZE);
+            exposed[(SIZE + 1) * PADDED + i + 1] = isExposed(axis, dir, slice, SIZE, i);
+            exposed[(i + 1) * PADDED] = isExposed(axis, dir, slice, i, -1);
+        }
+
+        return true;
+    }
+
+    private boolean isExposed(int axis, int dir, int slice, int u, int v) {
+        pos[axis] = base[axis] + slice;
+        pos[(axis + 1) % 3] = base[(axis + 1) % 3] + u;
+        pos[(axis + 2) % 3] = base[(axis + 2) % 3] + v;
+
+        if (!voxels.contains(pos[0], pos[1], pos[2])) return false;
+
+        pos[axis] += dir;
+        return !voxels.contains(pos[0], pos[1], pos[2]);
+    }
+
+    private boolean isExposed(int u, int v) {
+        return exposed[(u + 1) * PADDED + v + 1];
+    }
+
+    private void mergeQuads(int axis, int plane) {
+        int baseU = base[(axis + 1) % 3];
+        int baseV = base[(axis + 2) % 3];
+
+        for (int u = 0; u < SIZE; u++) {
+            for (int v = 0; v < SIZE; ) {
+                if (!remaining[u * SIZE + v]) {
+                    v++;
+                    continue;
+                }
+
+                // Grow along v, then along u while the whole row is still free
+                int height = 1;
+                while (v + height < SIZE && remaining[u * SIZE + v + height]) height++;
+
+                int width = 1;
+                grow:
+                while (u + width < SIZE) {
+                    for (int i = 0; i < height; i++) {
+                        if (!remaining[(u + width) * SIZE + v + i]) break grow;
+                    }
+
+                    width++;
+                }
+
+                for (int i = 0; i < width; i++) {
+                    for (int j = 0; j < height; j++) remaining[(u + i) * SIZE + v + j] = false;
+                }
+
+                output.quad(axis, plane, baseU + u, baseV + v, baseU + u + width, baseV + v + height);
+
+                v += height;
+            }
+        }
+    }
+
+    /** Every outline edge is shared by two faces of different axes, only the face with the lower axis adds it. */
+    private void addLines(int axis, int plane) {
+        int uAxis = (axis + 1) % 3;
+        int vAxis = (axis + 2) % 3;
+
+        // Edges between u columns, running along v
+        if (axis < uAxis) {
+            for (int b = 0; b <= SIZE; b++) {
+                int start = -1;
+
+                for (int v = 0; v <= SIZE; v++) {
+                    boolean edge = v < SIZE && isEdge(b - 1, v, b, v);
+
+                    if (edge && start == -1) start = v;
+                    else if (!edge && start != -1) {
+                        addLine(axis, plane, b, start, b, v);
+                        start = -1;
+                    }
+                }
+            }
+        }
+
+        // Edges between v rows, running along u
+        if (axis < vAxis) {
+            for (int b = 0; b <= SIZE; b++) {
+                int start = -1;
+
+                for (int u = 0; u <= SIZE; u++) {
+                    boolean edge = u < SIZE && isEdge(u, b - 1, u, b);
+
+                    if (edge && start == -1) start = u;
+                    else if (!edge && start != -1) {
+                        addLine(axis, plane, start, b, u, b);
+                        start = -1;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isEdge(int u1, int v1, int u2, int v2) {
+        boolean e1 = isExposed(u1, v1);
+        boolean e2 = isExposed(u2, v2);
+        if (e1 == e2) return false;
+
+        // The exposed face has to be inside this section
+        return e1 ? isInside(u1, v1) : isInside(u2, v2);
+    }
+
+    private static boolean isInside(int u, int v) {
+        return u >= 0 && u < SIZE && v >= 0 && v < SIZE;
+    }
+
+    private void addLine(int axis, int plane, int u1, int v1, int u2, int v2) {
+        int baseU = base[(axis + 1) % 3];
+        int baseV = base[(axis + 2) % 3];
+
+        toWorld(pos, axis, plane, baseU + u1, baseV + v1);
+        int x1 = pos[0], y1 = pos[1], z1 = pos[2];
+
+        toWorld(pos, axis, plane, baseU + u2, baseV + v2);
+        output.line(x1, y1, z1, pos[0], pos[1], pos[2]);
+    }
+
+    @FunctionalInterface
+    public interface VoxelPredicate {
+        boolean contains(int x, int y, int z);
+    }
+
+    public interface Output {
+        /** Rectangle on the face plane from {@code (u1, v1)} to {@code (u2, v2)}. */
+        void quad(int axis, int plane, int u1, int v1, int u2, int v2);
+
+        void line(int x1, int y1, int z1, int x2, int y2, int z2);
+    }
+}
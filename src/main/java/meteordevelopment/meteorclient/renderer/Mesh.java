@@ -12,6 +12,7 @@ import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.math.Vec3d;
 import org.joml.Matrix4fStack;
 import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GLCapabilities;
 
 import java.nio.ByteBuffer;
 
@@ -40,48 +41,124 @@ public class Mesh {
         }
     }
 
+    public enum Usage {
+        /**
+         * Rebuilt before every render. Vertices are written directly into persistently mapped buffers when
+         * GL_ARB_buffer_storage is supported, otherwise the buffers are orphaned and updated with glBufferSubData.
+         */
+        Stream,
+        /**
+         * Uploaded once and drawn again in later frames until it is rebuilt or {@link #invalidate()} is called. Should
+         * be built with {@link #begin(double, double, double)} when rendering in 3D so the camera can move.
+         */
+        Static
+    }
+
+    private static final int SHRINK_CHECK_BUILDS = 600;
+
+    private static Boolean persistentSupported;
+
     public boolean depthTest = false;
     public double alpha = 1;
+    public boolean premultipliedAlpha;
+    /** Multiplied with the vertex colors by {@link Shaders#POS_COLOR} so cached meshes can change color without being rebuilt. */
+    public Color tint;
 
     private final DrawMode drawMode;
+    private final Usage usage;
+    private final Attrib[] attributes;
     private final int primitiveVerticesSize;
 
-    private final int vao, vbo, ibo;
+    private final int vao;
+    private int vbo, ibo;
 
-    private ByteBuffer vertices;
-    private long verticesPointerStart, verticesPointer;
+    // Persistently mapped buffers, only used for stream meshes
+    private final RingBuffer vertexRing, indexRing;
+
+    // Client side buffers, used when persistent mapping isn't supported and by static meshes only while building
+    private ByteBuffer vertices, indices;
+    private final int initialVerticesCapacity, initialIndicesCapacity;
+    private long uploadedSize;
 
-    private ByteBuffer indices;
+    private long verticesPointerStart, verticesPointer;
     private long indicesPointer;
+    private int verticesCapacity, indicesCapacity;
 
     private int vertexI, indicesCount;
+    private long indicesOffset;
+    private int baseVertex;
 
-    private boolean building, rendering3D;
-    private double cameraX, cameraZ;
+    private int builds, maxVertexI, maxIndicesCount;
+
+    private boolean building, rendering3D, valid;
+    private double originX, originY, originZ;
     private boolean beganRendering;
 
     public Mesh(DrawMode drawMode, Attrib... attributes) {
+        this(drawMode, Usage.Stream, attributes);
+    }
+
+    public Mesh(DrawMode drawMode, Usage usage, Attrib... attributes) {
         int stride = 0;
         for (Attrib attribute : attributes) stride += attribute.size;
 
         this.drawMode = drawMode;
+        this.usage = usage;
+        this.attributes = attributes;
         this.primitiveVerticesSize = stride * drawMode.indicesCount;
 
-        vertices = BufferUtils.createByteBuffer(primitiveVerticesSize * 256 * 4);
-        verticesPointerStart = memAddress0(vertices);
+        initialVerticesCapacity = primitiveVerticesSize * 256 * 4;
+        initialIndicesCapacity = drawMode.indicesCount * 512 * 4;
+
+        if (usage == Usage.Stream && isPersistentSupported()) {
+            vertexRing = new RingBuffer(initialVerticesCapacity, stride);
+            indexRing = new RingBuffer(initialIndicesCapacity, 4);
+
+            vbo = vertexRing.getId();
+            ibo = indexRing.getId();
+        }
+        else {
+            vertexRing = null;
+            indexRing = null;
+
+            if (usage == Usage.Stream) {
+                vertices = BufferUtils.createByteBuffer(initialVerticesCapacity);
+                indices = BufferUtils.createByteBuffer(initialIndicesCapacity);
+            }
 
-        indices = BufferUtils.createByteBuffer(drawMode.indicesCount * 512 * 4);
-        indicesPointer = memAddress0(indices);
+            vbo = GL.genBuffer();
+            ibo = GL.genBuffer();
+        }
 
         vao = GL.genVertexArray();
-        GL.bindVertexArray(vao);
+        setupVertexArray();
+    }
 
-        vbo = GL.genBuffer();
-        GL.bindVertexBuffer(vbo);
+    private static boolean isPersistentSupported() {
+        if (persistentSupported == null) {
+            GLCapabilities capabilities = org.lwjgl.opengl.GL.getCapabilities();
+            persistentSupported = capabilities.OpenGL44 || capabilities.GL_ARB_buffer_storage;
+        }
+
+        return persistentSupported;
+    }
 
-        ibo = GL.genBuffer();
+    private void setupVertexArray() {
+        GL.bindVertexArray(vao);
+        GL.bindVertexBuffer(vbo);
         GL.bindIndexBuffer(ibo);
 
+        setupAttributes(attributes);
+
+        GL.bindVertexArray(0);
+        GL.bindVertexBuffer(0);
+        GL.bindIndexBuffer(0);
+    }
+
+    static void setupAttributes(Attrib... attributes) {
+        int stride = 0;
+        for (Attrib attribute : attributes) stride += attribute.size;
+
         int offset = 0;
         for (int i = 0; i < attributes.length; i++) {
             Attrib attrib = attributes[i];
@@ -91,46 +168,95 @@ public class Mesh {
 
             offset += attrib.size;
         }
-
-        GL.bindVertexArray(0);
-        GL.bindVertexBuffer(0);
-        GL.bindIndexBuffer(0);
     }
 
     public void destroy() {
-        GL.deleteBuffer(ibo);
-        GL.deleteBuffer(vbo);
+        if (vertexRing != null) {
+            indexRing.destroy();
+            vertexRing.destroy();
+        }
+        else {
+            GL.deleteBuffer(ibo);
+            GL.deleteBuffer(vbo);
+        }
+
         GL.deleteVertexArray(vao);
     }
 
+    /** @return estimate of the client and gpu memory in bytes held by the buffers of this mesh */
+    public long getMemoryUsage() {
+        if (vertexRing != null) return vertexRing.getSize() + indexRing.getSize();
+        if (usage == Usage.Static) return uploadedSize + (vertices == null ? 0 : vertices.capacity() + indices.capacity());
+
+        // The client side buffers are uploaded to gpu buffers of up to the same size
+        return 2L * (vertices.capacity() + indices.capacity());
+    }
+
     public void begin() {
         if (building) throw new IllegalStateException("Mesh.begin() called while already building.");
 
+        if (vertexRing != null) {
+            verticesPointerStart = vertexRing.begin();
+            verticesCapacity = vertexRing.available();
+
+            indicesPointer = indexRing.begin();
+            indicesCapacity = indexRing.available();
+        }
+        else {
+            if (vertices == null) {
+                // Static meshes give their client side buffers back after uploading, start at the size of the last build
+                vertices = BufferUtils.createByteBuffer(Math.max(initialVerticesCapacity, (vertexI + 1) * primitiveVerticesSize));
+                indices = BufferUtils.createByteBuffer(Math.max(initialIndicesCapacity, (indicesCount + drawMode.indicesCount) * 4));
+            }
+            else if (builds >= SHRINK_CHECK_BUILDS) shrinkIfNeeded();
+
+            verticesPointerStart = memAddress0(vertices);
+            verticesCapacity = vertices.capacity();
+
+            indicesPointer = memAddress0(indices);
+            indicesCapacity = indices.capacity();
+        }
+
         verticesPointer = verticesPointerStart;
         vertexI = 0;
         indicesCount = 0;
 
         building = true;
+        valid = false;
         rendering3D = Utils.rendering3D;
 
         if (rendering3D) {
             Vec3d camera = mc.gameRenderer.getCamera().getPos();
 
-            cameraX = camera.x;
-            cameraZ = camera.z;
+            originX = camera.x;
+            originZ = camera.z;
         }
         else {
-            cameraX = 0;
-            cameraZ = 0;
+            originX = 0;
+            originZ = 0;
         }
+
+        originY = 0;
+    }
+
+    /**
+     * Begins building vertices relative to a fixed origin instead of the current camera position, used for static
+     * meshes which are drawn again after the camera moved.
+     */
+    public void begin(double originX, double originY, double originZ) {
+        begin();
+
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
     }
 
     public Mesh vec3(double x, double y, double z) {
         long p = verticesPointer;
 
-        memPutFloat(p, (float) (x - cameraX));
-        memPutFloat(p + 4, (float) y);
-        memPutFloat(p + 8, (float) (z - cameraZ));
+        memPutFloat(p, (float) (x - originX));
+        memPutFloat(p + 4, (float) (y - originY));
+        memPutFloat(p + 8, (float) (z - originZ));
 
         verticesPointer += 12;
         return this;
@@ -200,47 +326,116 @@ public class Mesh {
 
     public void growIfNeeded() {
         // Vertices
-        if ((vertexI + 1) * primitiveVerticesSize >= vertices.capacity()) {
+        if ((vertexI + 1) * primitiveVerticesSize >= verticesCapacity) {
             int offset = getVerticesOffset();
 
-            int newSize = vertices.capacity() * 2;
+            int newSize = verticesCapacity * 2;
             if (newSize % primitiveVerticesSize != 0) newSize += newSize % primitiveVerticesSize;
 
-            ByteBuffer newVertices = BufferUtils.createByteBuffer(newSize);
-            memCopy(memAddress0(vertices), memAddress0(newVertices), offset);
+            if (vertexRing != null) {
+                verticesPointerStart = vertexRing.ensure(offset, newSize);
+                verticesCapacity = vertexRing.available();
+            }
+            else {
+                ByteBuffer newVertices = BufferUtils.createByteBuffer(newSize);
+                memCopy(memAddress0(vertices), memAddress0(newVertices), offset);
+
+                vertices = newVertices;
+                verticesPointerStart = memAddress0(vertices);
+                verticesCapacity = vertices.capacity();
+            }
 
-            vertices = newVertices;
-            verticesPointerStart = memAddress0(vertices);
             verticesPointer = verticesPointerStart + offset;
         }
 
         // Indices
-        if (indicesCount * 4 >= indices.capacity()) {
-            int newSize = indices.capacity() * 2;
+        if (indicesCount * 4 >= indicesCapacity) {
+            int newSize = indicesCapacity * 2;
             if (newSize % drawMode.indicesCount != 0) newSize += newSize % (drawMode.indicesCount * 4);
 
-            ByteBuffer newIndices = BufferUtils.createByteBuffer(newSize);
-            memCopy(memAddress0(indices), memAddress0(newIndices), indicesCount * 4L);
+            if (indexRing != null) {
+                indicesPointer = indexRing.ensure(indicesCount * 4, newSize);
+                indicesCapacity = indexRing.available();
+            }
+            else {
+                ByteBuffer newIndices = BufferUtils.createByteBuffer(newSize);
+                memCopy(memAddress0(indices), memAddress0(newIndices), indicesCount * 4L);
+
+                indices = newIndices;
+                indicesPointer = memAddress0(indices);
+                indicesCapacity = indices.capacity();
+            }
+        }
 
-            indices = newIndices;
-            indicesPointer = memAddress0(indices);
+        // Growing a ring buffer can replace the underlying gl buffers
+        if (vertexRing != null && (vertexRing.getId() != vbo || indexRing.getId() != ibo)) {
+            vbo = vertexRing.getId();
+            ibo = indexRing.getId();
+
+            setupVertexArray();
         }
     }
 
     public void end() {
         if (!building) throw new IllegalStateException("Mesh.end() called while not building.");
 
-        if (indicesCount > 0) {
-            GL.bindVertexBuffer(vbo);
-            GL.bufferData(GL_ARRAY_BUFFER, vertices.limit(getVerticesOffset()), GL_DYNAMIC_DRAW);
-            GL.bindVertexBuffer(0);
+        if (vertexRing != null) {
+            // The data is already in gpu visible memory, only remember where it starts
+            vertexRing.end(getVerticesOffset());
+            indexRing.end(indicesCount * 4);
 
-            GL.bindIndexBuffer(ibo);
-            GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices.limit(indicesCount * 4), GL_DYNAMIC_DRAW);
-            GL.bindIndexBuffer(0);
+            baseVertex = (int) (vertexRing.getOffset() / (primitiveVerticesSize / drawMode.indicesCount));
+            indicesOffset = indexRing.getOffset();
+        }
+        else if (indicesCount > 0) {
+            if (usage == Usage.Static) {
+                GL.bindVertexBuffer(vbo);
+                GL.bufferData(GL_ARRAY_BUFFER, getVertices(), GL_STATIC_DRAW);
+                GL.bindVertexBuffer(0);
+
+                GL.bindIndexBuffer(ibo);
+                GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, getIndices(), GL_STATIC_DRAW);
+                GL.bindIndexBuffer(0);
+            }
+            else {
+                // Orphan the previous storage so the driver doesn't have to wait for draws still reading from it
+                GL.bindVertexBuffer(vbo);
+                GL.bufferData(GL_ARRAY_BUFFER, vertices.capacity(), GL_STREAM_DRAW);
+                GL.bufferSubData(GL_ARRAY_BUFFER, 0, getVertices());
+                GL.bindVertexBuffer(0);
+
+                GL.bindIndexBuffer(ibo);
+                GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices.capacity(), GL_STREAM_DRAW);
+                GL.bufferSubData(GL_ELEMENT_ARRAY_BUFFER, 0, getIndices());
+                GL.bindIndexBuffer(0);
+            }
+
+            baseVertex = 0;
+            indicesOffset = 0;
+        }
+
+        trackUsage();
+
+        if (usage == Usage.Static) {
+            // The data only lives in the gpu buffers from now on
+            uploadedSize = indicesCount > 0 ? getVerticesOffset() + indicesCount * 4L : 0;
+
+            vertices = null;
+            indices = null;
         }
 
         building = false;
+        valid = true;
+    }
+
+    /** Discards the contents of a static mesh so it is not rendered until it is built again. */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /** @return true if the mesh holds data from a finished build which hasn't been invalidated */
+    public boolean isValid() {
+        return valid;
     }
 
     public void beginRender(MatrixStack matrices) {
@@ -249,6 +444,7 @@ public class Mesh {
         if (depthTest) GL.enableDepth();
         else GL.disableDepth();
         GL.enableBlend();
+        if (premultipliedAlpha) GL.blendPremultiplied();
         GL.disableCull();
         GL.enableLineSmooth();
 
@@ -257,9 +453,6 @@ public class Mesh {
             matrixStack.pushMatrix();
 
             if (matrices != null) matrixStack.mul(matrices.peek().getPositionMatrix());
-
-            Vec3d cameraPos = mc.gameRenderer.getCamera().getPos();
-            matrixStack.translate(0, (float) -cameraPos.y, 0);
         }
 
         beganRendering = true;
@@ -268,18 +461,14 @@ public class Mesh {
     public void render(MatrixStack matrices) {
         if (building) end();
 
-        if (indicesCount > 0) {
+        if (valid && indicesCount > 0) {
             // Setup opengl state and matrix stack
             boolean wasBeganRendering = beganRendering;
             if (!wasBeganRendering) beginRender(matrices);
 
             // Render
             beforeRender();
-
-            Shader.BOUND.setDefaults();
-
-            GL.bindVertexArray(vao);
-            GL.drawElements(drawMode.getGL(), indicesCount, GL_UNSIGNED_INT);
+            draw();
 
             // Cleanup opengl state and matrix stack
             GL.bindVertexArray(0);
@@ -291,6 +480,7 @@ public class Mesh {
     public void endRender() {
         if (rendering3D) RenderSystem.getModelViewStack().popMatrix();
 
+        if (premultipliedAlpha) GL.enableBlend();
         GL.restoreState();
 
         beganRendering = false;
@@ -302,7 +492,83 @@ public class Mesh {
 
     protected void beforeRender() {}
 
+    /** Draws with the currently bound shader and opengl state, used by {@link RenderQueue}. Leaves the vertex array bound. */
+    void draw() {
+        Matrix4fStack matrixStack = RenderSystem.getModelViewStack();
+
+        if (rendering3D) {
+            Vec3d cameraPos = mc.gameRenderer.getCamera().getPos();
+
+            matrixStack.pushMatrix();
+            matrixStack.translate((float) (originX - cameraPos.x), (float) (originY - cameraPos.y), (float) (originZ - cameraPos.z));
+        }
+
+        Shader.BOUND.setDefaults();
+        if (tint != null) Shader.BOUND.set("u_Tint", tint);
+
+        GL.bindVertexArray(vao);
+        GL.drawElementsBaseVertex(drawMode.getGL(), indicesCount, GL_UNSIGNED_INT, indicesOffset, baseVertex);
+
+        if (tint != null) Shader.BOUND.set("u_Tint", Color.WHITE);
+
+        if (rendering3D) matrixStack.popMatrix();
+    }
+
+    /** @return the shader bound before rendering, or null if it is bound by the caller */
+    Shader getShader() {
+        return null;
+    }
+
+    ByteBuffer getVertices() {
+        return memByteBuffer(verticesPointerStart, getVerticesOffset());
+    }
+
+    ByteBuffer getIndices() {
+        return memByteBuffer(indicesPointer, indicesCount * 4);
+    }
+
+    int getIndicesCount() {
+        return indicesCount;
+    }
+
+    public int getVertexCount() {
+        return vertexI;
+    }
+
+    DrawMode getDrawMode() {
+        return drawMode;
+    }
+
     private int getVerticesOffset() {
         return (int) (verticesPointer - verticesPointerStart);
     }
+
+    private void trackUsage() {
+        maxVertexI = Math.max(maxVertexI, vertexI);
+        maxIndicesCount = Math.max(maxIndicesCount, indicesCount);
+        builds++;
+    }
+
+    private void shrinkIfNeeded() {
+        // Client side buffers only ever grew before, give the memory back after a spike, e.g. a huge gui or search
+        int verticesNeeded = (maxVertexI + 1) * primitiveVerticesSize * 2;
+        if (vertices.capacity() > initialVerticesCapacity && verticesNeeded * 2 < vertices.capacity()) {
+            int newSize = Math.max(initialVerticesCapacity, verticesNeeded);
+            if (newSize % primitiveVerticesSize != 0) newSize += primitiveVerticesSize - newSize % primitiveVerticesSize;
+
+            vertices = BufferUtils.createByteBuffer(newSize);
+        }
+
+        int indicesNeeded = (maxIndicesCount + 1) * 4 * 2;
+        if (indices.capacity() > initialIndicesCapacity && indicesNeeded * 2 < indices.capacity()) {
+            int newSize = Math.max(initialIndicesCapacity, indicesNeeded);
+            if (newSize % (drawMode.indicesCount * 4) != 0) newSize += drawMode.indicesCount * 4 - newSize % (drawMode.indicesCount * 4);
+
+            indices = BufferUtils.createByteBuffer(newSize);
+        }
+
+        builds = 0;
+        maxVertexI = 0;
+        maxIndicesCount = 0;
+    }
 }
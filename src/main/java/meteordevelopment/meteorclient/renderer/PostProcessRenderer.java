@@ -17,7 +17,7 @@ public class PostProcessRenderer {
 
     @PreInit
     public static void init() {
-        mesh = new Mesh(DrawMode.Triangles, Mesh.Attrib.Vec2);
+        mesh = new Mesh(DrawMode.Triangles, Mesh.Usage.Static, Mesh.Attrib.Vec2);
         mesh.begin();
 
         mesh.quad(
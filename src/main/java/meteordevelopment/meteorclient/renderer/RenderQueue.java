@@ -0,0 +1,108 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import meteordevelopment.meteorclient.utils.misc.Pool;
+import net.minecraft.client.util.math.MatrixStack;
+import org.joml.Matrix4fStack;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the draws of a frame and submits them sorted by their state so draws sharing a shader, texture, depth test
+ * and draw mode are drawn back to back without changing any opengl state in between. Draws aren't merged, every mesh
+ * keeps its own buffers and vertex array and static meshes are positioned by their own origin, so only the state
+ * changes between them are saved. Immediate geometry is already merged by drawing it into the shared renderer of
+ * {@link meteordevelopment.meteorclient.events.render.Render3DEvent}.
+ */
+public class RenderQueue {
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> entry.shader.getId())
+        .thenComparingInt(entry -> entry.texture)
+        .thenComparing(entry -> entry.depthTest)
+        .thenComparing(entry -> entry.drawMode);
+
+    private final Pool<Entry> entryPool = new Pool<>(Entry::new);
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Queues a mesh which binds its own shader, the mesh is ended if it is still building. */
+    public void submit(Mesh mesh) {
+        submit(mesh, 0);
+    }
+
+    public void submit(Mesh mesh, int texture) {
+        if (mesh.getShader() == null) throw new IllegalArgumentException("RenderQueue.submit() called with a mesh without a shader.");
+        if (mesh.isBuilding()) mesh.end();
+        if (!mesh.isValid() || mesh.getIndicesCount() == 0) return;
+
+        Entry entry = entryPool.get();
+        entry.set(mesh.getShader(), texture, mesh.depthTest, mesh.getDrawMode());
+        entry.mesh = mesh;
+        entries.add(entry);
+    }
+
+    public void render(MatrixStack matrices) {
+        if (entries.isEmpty()) return;
+
+        // List.sort is stable so draws using the same state keep their submission order
+        entries.sort(ORDER);
+
+        GL.saveState();
+
+        GL.enableBlend();
+        GL.disableCull();
+        GL.enableLineSmooth();
+
+        Matrix4fStack matrixStack = RenderSystem.getModelViewStack();
+        matrixStack.pushMatrix();
+
+        if (matrices != null) matrixStack.mul(matrices.peek().getPositionMatrix());
+
+        Entry previous = null;
+
+        for (Entry entry : entries) {
+            if (previous == null || entry.depthTest != previous.depthTest) {
+                if (entry.depthTest) GL.enableDepth();
+                else GL.disableDepth();
+            }
+
+            if (previous == null || entry.shader != previous.shader) entry.shader.bind();
+            if (entry.texture != 0 && (previous == null || entry.texture != previous.texture)) GL.bindTexture(entry.texture);
+
+            entry.mesh.draw();
+
+            previous = entry;
+        }
+
+        GL.bindVertexArray(0);
+
+        matrixStack.popMatrix();
+        GL.restoreState();
+
+        for (Entry entry : entries) entryPool.free(entry);
+        entries.clear();
+    }
+
+    private static class Entry {
+        public Shader shader;
+        public int texture;
+        public boolean depthTest;
+        public DrawMode drawMode;
+
+        public Mesh mesh;
+
+        public void set(Shader shader, int texture, boolean depthTest, DrawMode drawMode) {
+            this.shader = shader;
+            this.texture = texture;
+            this.depthTest = depthTest;
+            this.drawMode = drawMode;
+
+            mesh = null;
+        }
+    }
+}
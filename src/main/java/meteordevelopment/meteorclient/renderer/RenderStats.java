@@ -0,0 +1,64 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+/** Counts the draw calls and opengl state changes issued through {@link GL} and text layout cache lookups. */
+public class RenderStats {
+    private static int drawCalls, stateChanges, textLayoutHits, textLayoutMisses;
+    private static int frameDrawCalls, frameStateChanges, frameTextLayoutHits, frameTextLayoutMisses;
+
+    private RenderStats() {
+    }
+
+    static void drawCall() {
+        frameDrawCalls++;
+    }
+
+    static void stateChange() {
+        frameStateChanges++;
+    }
+
+    public static void textLayoutHit() {
+        frameTextLayoutHits++;
+    }
+
+    public static void textLayoutMiss() {
+        frameTextLayoutMisses++;
+    }
+
+    /** Publishes the counts of the frame which just finished and starts counting the next one, called before a frame is rendered. */
+    public static void endFrame() {
+        drawCalls = frameDrawCalls;
+        stateChanges = frameStateChanges;
+        textLayoutHits = frameTextLayoutHits;
+        textLayoutMisses = frameTextLayoutMisses;
+
+        frameDrawCalls = 0;
+        frameStateChanges = 0;
+        frameTextLayoutHits = 0;
+        frameTextLayoutMisses = 0;
+    }
+
+    /** @return draw calls issued during the last frame */
+    public static int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /** @return state changes issued during the last frame */
+    public static int getStateChanges() {
+        return stateChanges;
+    }
+
+    /** @return text layouts reused from the cache during the last frame */
+    public static int getTextLayoutHits() {
+        return textLayoutHits;
+    }
+
+    /** @return text layouts which had to be created during the last frame */
+    public static int getTextLayoutMisses() {
+        return textLayoutMisses;
+    }
+}
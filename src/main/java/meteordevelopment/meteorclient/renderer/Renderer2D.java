@@ -18,17 +18,23 @@ public class Renderer2D {
     public final Mesh lines;
 
     public Renderer2D(boolean texture) {
+        this(texture, Mesh.Usage.Stream);
+    }
+
+    public Renderer2D(boolean texture, Mesh.Usage usage) {
         triangles = new ShaderMesh(
             texture ? Shaders.POS_TEX_COLOR : Shaders.POS_COLOR,
             DrawMode.Triangles,
+            usage,
             texture ? new Mesh.Attrib[]{Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color} : new Mesh.Attrib[]{Mesh.Attrib.Vec2, Mesh.Attrib.Color}
         );
 
-        lines = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
+        lines = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, usage, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
     }
 
     @PreInit(dependencies = Shaders.class)
     public static void init() {
+        // Shared by everything drawing in 2D and rebuilt on every use, a static mesh would be uploaded again each time
         COLOR = new Renderer2D(false);
         TEXTURE = new Renderer2D(true);
     }
@@ -52,6 +58,16 @@ public class Renderer2D {
         lines.render(matrices);
     }
 
+    /** Used by static renderers to check if they still hold a build which can be rendered again. */
+    public boolean isValid() {
+        return triangles.isValid() && lines.isValid();
+    }
+
+    public void invalidate() {
+        triangles.invalidate();
+        lines.invalidate();
+    }
+
     // Tris
     public void triangle(double x1, double y1, double x2, double y2, double x3, double y3, Color color) {
         triangles.triangle(
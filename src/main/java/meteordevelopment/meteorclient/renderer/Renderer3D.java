@@ -12,14 +12,28 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 
 public class Renderer3D {
-    public final Mesh lines = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
-    public final Mesh triangles = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Triangles, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+    public final Mesh lines;
+    public final Mesh triangles;
+
+    public Renderer3D() {
+        this(Mesh.Usage.Stream);
+    }
+
+    public Renderer3D(Mesh.Usage usage) {
+        lines = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, usage, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+        triangles = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Triangles, usage, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+    }
 
     public void begin() {
         lines.begin();
         triangles.begin();
     }
 
+    public void begin(double originX, double originY, double originZ) {
+        lines.begin(originX, originY, originZ);
+        triangles.begin(originX, originY, originZ);
+    }
+
     public void end() {
         lines.end();
         triangles.end();
@@ -30,6 +44,27 @@ public class Renderer3D {
         triangles.render(matrices);
     }
 
+    /** Queues both meshes instead of rendering them directly. */
+    public void submit(RenderQueue queue) {
+        queue.submit(lines);
+        queue.submit(triangles);
+    }
+
+    /** Used by static renderers to check if they still hold a build which can be rendered again. */
+    public boolean isValid() {
+        return lines.isValid() && triangles.isValid();
+    }
+
+    public void invalidate() {
+        lines.invalidate();
+        triangles.invalidate();
+    }
+
+    public void destroy() {
+        lines.destroy();
+        triangles.destroy();
+    }
+
     // Lines
 
     public void line(double x1, double y1, double z1, double x2, double y2, double z2, Color color1, Color color2) {
@@ -0,0 +1,154 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import static org.lwjgl.opengl.GL44C.*;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+
+/**
+ * Persistently mapped buffer split into sections. Writes go directly into gpu visible memory and a section is only
+ * reused after a fence confirms the gpu finished reading the draws from it.
+ */
+class RingBuffer {
+    private static final int SECTIONS = 3;
+    private static final int FLAGS = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+
+    private final int alignment;
+    private final long[] fences = new long[SECTIONS];
+
+    private int id;
+    private long address;
+    private int sectionSize;
+
+    private int section, head, start;
+
+    RingBuffer(int sectionSize, int alignment) {
+        this.alignment = alignment;
+
+        allocate(align(sectionSize));
+    }
+
+    int getId() {
+        return id;
+    }
+
+    /** @return the address the next write should start at */
+    long begin() {
+        if (head >= sectionSize) nextSection();
+
+        start = head;
+        return getAddress();
+    }
+
+    /** @return bytes available for the current write without moving or growing */
+    int available() {
+        return sectionSize - start;
+    }
+
+    /**
+     * Makes sure the current write has room for {@code size} bytes. The already written {@code used} bytes are moved
+     * into the next section or into a bigger buffer when needed.
+     *
+     * @return the new address of the current write
+     */
+    long ensure(int used, int size) {
+        if (size <= available()) return getAddress();
+
+        long oldAddress = getAddress();
+
+        if (size <= sectionSize && start != 0) {
+            nextSection();
+            memCopy(oldAddress, getAddress(), used);
+
+            return getAddress();
+        }
+
+        // Deleting the old buffer is fine even if the gpu still reads from it, the driver keeps it alive until then
+        int oldId = id;
+
+        allocate(align(Math.max(sectionSize * 2, size)));
+        memCopy(oldAddress, getAddress(), used);
+
+        GL.deleteBuffer(oldId);
+        return getAddress();
+    }
+
+    /** @return size of the whole buffer in bytes */
+    long getSize() {
+        return (long) sectionSize * SECTIONS;
+    }
+
+    void end(int used) {
+        head = start + align(used);
+    }
+
+    /** @return byte offset of the current write from the start of the buffer */
+    long getOffset() {
+        return (long) section * sectionSize + start;
+    }
+
+    void destroy() {
+        deleteFences();
+        GL.deleteBuffer(id);
+    }
+
+    private long getAddress() {
+        return address + getOffset();
+    }
+
+    private void allocate(int sectionSize) {
+        deleteFences();
+
+        this.sectionSize = sectionSize;
+        section = 0;
+        head = 0;
+        start = 0;
+
+        // The copy write target isn't part of the vertex array state so binding it doesn't disturb the bound vao
+        id = GL.genBuffer();
+        glBindBuffer(GL_COPY_WRITE_BUFFER, id);
+        glBufferStorage(GL_COPY_WRITE_BUFFER, (long) sectionSize * SECTIONS, FLAGS);
+        address = nglMapBufferRange(GL_COPY_WRITE_BUFFER, 0, (long) sectionSize * SECTIONS, FLAGS);
+        glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+
+        if (address == 0) throw new IllegalStateException("Failed to map persistent buffer.");
+    }
+
+    private void nextSection() {
+        if (fences[section] != 0) glDeleteSync(fences[section]);
+        fences[section] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+
+        section = (section + 1) % SECTIONS;
+        head = 0;
+        start = 0;
+
+        long fence = fences[section];
+
+        if (fence != 0) {
+            int result;
+            do {
+                result = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, 1_000_000L);
+            } while (result == GL_TIMEOUT_EXPIRED);
+
+            glDeleteSync(fence);
+            fences[section] = 0;
+        }
+    }
+
+    private void deleteFences() {
+        for (int i = 0; i < SECTIONS; i++) {
+            if (fences[i] != 0) {
+                glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+        }
+    }
+
+    private int align(int size) {
+        int remainder = size % alignment;
+        return remainder == 0 ? size : size + alignment - remainder;
+    }
+}
@@ -56,6 +56,11 @@ public class Shader {
         GL.deleteShader(frag);
     }
 
+    public void destroy() {
+        if (BOUND == this) BOUND = null;
+        GL.deleteProgram(id);
+    }
+
     private String read(String path) {
         try {
             return IOUtils.toString(mc.getResourceManager().getResource(MeteorClient.identifier("shaders/" + path)).get().getInputStream(), StandardCharsets.UTF_8);
@@ -69,6 +74,10 @@ public class Shader {
         BOUND = this;
     }
 
+    int getId() {
+        return id;
+    }
+
     private int getLocation(String name) {
         if (uniformLocations.containsKey(name)) return uniformLocations.getInt(name);
 
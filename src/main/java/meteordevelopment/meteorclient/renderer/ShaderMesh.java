@@ -9,11 +9,20 @@ public class ShaderMesh extends Mesh {
     private final Shader shader;
 
     public ShaderMesh(Shader shader, DrawMode drawMode, Attrib... attributes) {
-        super(drawMode, attributes);
+        this(shader, drawMode, Usage.Stream, attributes);
+    }
+
+    public ShaderMesh(Shader shader, DrawMode drawMode, Usage usage, Attrib... attributes) {
+        super(drawMode, usage, attributes);
 
         this.shader = shader;
     }
 
+    @Override
+    Shader getShader() {
+        return shader;
+    }
+
     @Override
     protected void beforeRender() {
         shader.bind();
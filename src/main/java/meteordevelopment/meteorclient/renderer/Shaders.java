@@ -10,6 +10,9 @@ import meteordevelopment.meteorclient.utils.PreInit;
 public class Shaders {
     public static Shader POS_COLOR;
     public static Shader POS_TEX_COLOR;
+    public static Shader TEXT_SDF;
+    /** @deprecated Text is rendered from distance fields, this is the same shader as {@link #TEXT_SDF} */
+    @Deprecated
     public static Shader TEXT;
 
     private Shaders() {
@@ -19,6 +22,7 @@ public class Shaders {
     public static void init() {
         POS_COLOR = new Shader("pos_color.vert", "pos_color.frag");
         POS_TEX_COLOR = new Shader("pos_tex_color.vert", "pos_tex_color.frag");
-        TEXT = new Shader("text.vert", "text.frag");
+        TEXT_SDF = new Shader("text.vert", "text_sdf.frag");
+        TEXT = TEXT_SDF;
     }
 }
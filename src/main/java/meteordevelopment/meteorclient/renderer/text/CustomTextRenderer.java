@@ -5,7 +5,7 @@
 
 package meteordevelopment.meteorclient.renderer.text;
 
-import meteordevelopment.meteorclient.renderer.*;
+import meteordevelopment.meteorclient.renderer.Mesh;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.util.math.MatrixStack;
@@ -16,75 +16,58 @@ import java.nio.ByteBuffer;
 public class CustomTextRenderer implements TextRenderer {
     public static final Color SHADOW_COLOR = new Color(60, 60, 60, 180);
 
-    private final Mesh mesh = new ShaderMesh(Shaders.TEXT, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
+    private final TextMesh mesh;
 
     public final FontFace fontFace;
 
-    private final Font[] fonts;
-    private Font font;
+    private final Font font;
 
     private boolean building;
     private boolean scaleOnly;
-    private double fontScale = 1;
     private double scale = 1;
 
     public CustomTextRenderer(FontFace fontFace) {
+        this(fontFace, Mesh.Usage.Stream);
+    }
+
+    /**
+     * A {@link Mesh.Usage#Static} renderer keeps its text until {@link #invalidate()} is called or glyphs are evicted from
+     * the font, draw it again with {@link #render(MatrixStack)} while {@link #isValid()}.
+     */
+    public CustomTextRenderer(FontFace fontFace, Mesh.Usage usage) {
         this.fontFace = fontFace;
+        this.mesh = new TextMesh(usage);
 
         byte[] bytes = Utils.readBytes(fontFace.toStream());
         ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
 
-        fonts = new Font[5];
-        for (int i = 0; i < fonts.length; i++) {
-            fonts[i] = new Font(buffer, (int) Math.round(27 * ((i * 0.5) + 1)));
-        }
+        // Glyphs are distance fields so a single font renders every scale
+        font = new Font(buffer, 27);
     }
 
     @Override
     public void setAlpha(double a) {
-        mesh.alpha = a;
+        mesh.setAlpha(a);
     }
 
     @Override
     public void begin(double scale, boolean scaleOnly, boolean big) {
         if (building) throw new RuntimeException("CustomTextRenderer.begin() called twice");
 
-        if (!scaleOnly) mesh.begin();
-
-        if (big) {
-            this.font = fonts[fonts.length - 1];
-        }
-        else {
-            double scaleA = Math.floor(scale * 10) / 10;
-
-            int scaleI;
-            if (scaleA >= 3) scaleI = 5;
-            else if (scaleA >= 2.5) scaleI = 4;
-            else if (scaleA >= 2) scaleI = 3;
-            else if (scaleA >= 1.5) scaleI = 2;
-            else scaleI = 1;
-
-            font = fonts[scaleI - 1];
-        }
-
         this.building = true;
         this.scaleOnly = scaleOnly;
-
-        this.fontScale = font.getHeight() / 27.0;
-        this.scale = 1 + (scale - fontScale) / fontScale;
+        this.scale = scale;
     }
 
     @Override
     public double getWidth(String text, int length, boolean shadow) {
         if (text.isEmpty()) return 0;
 
-        Font font = building ? this.font : fonts[0];
         return (font.getWidth(text, length) + (shadow ? 1 : 0)) * scale / 1.5;
     }
 
     @Override
     public double getHeight(boolean shadow) {
-        Font font = building ? this.font : fonts[0];
         return (font.getHeight() + 1 + (shadow ? 1 : 0)) * scale / 1.5;
     }
 
@@ -98,7 +81,7 @@ public class CustomTextRenderer implements TextRenderer {
             int preShadowA = SHADOW_COLOR.a;
             SHADOW_COLOR.a = (int) (color.a / 255.0 * preShadowA);
 
-            width = font.render(mesh, text, x + fontScale * scale / 1.5, y + fontScale * scale / 1.5, SHADOW_COLOR, scale / 1.5);
+            width = font.render(mesh, text, x + scale / 1.5, y + scale / 1.5, SHADOW_COLOR, scale / 1.5);
             font.render(mesh, text, x, y, color, scale / 1.5);
 
             SHADOW_COLOR.a = preShadowA;
@@ -120,18 +103,29 @@ public class CustomTextRenderer implements TextRenderer {
     public void end(MatrixStack matrices) {
         if (!building) throw new RuntimeException("CustomTextRenderer.end() called without calling begin()");
 
-        if (!scaleOnly) {
-            mesh.end();
-
-            GL.bindTexture(font.texture.getGlId());
-            mesh.render(matrices);
-        }
+        if (!scaleOnly) mesh.render(font, matrices);
 
         building = false;
         scale = 1;
     }
 
+    /** Renders the last build of a static renderer again without rebuilding it. */
+    public void render(MatrixStack matrices) {
+        if (building) throw new RuntimeException("CustomTextRenderer.render() called while building");
+
+        mesh.render(font, matrices);
+    }
+
+    public boolean isValid() {
+        return mesh.isValid();
+    }
+
+    public void invalidate() {
+        mesh.invalidate();
+    }
+
     public void destroy() {
         mesh.destroy();
+        font.destroy();
     }
 }
@@ -7,63 +7,71 @@ package meteordevelopment.meteorclient.renderer.text;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.renderer.Mesh;
+import meteordevelopment.meteorclient.renderer.RenderStats;
 import meteordevelopment.meteorclient.utils.render.ByteTexture;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.texture.AbstractTexture;
 import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.*;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTruetype;
 import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.util.*;
 
+/**
+ * Glyphs are baked as signed distance fields the first time they are used and shelf packed into atlas pages. A single
+ * bake renders sharp text at any scale, {@link #getHeight()} is only the size the metrics are reported in. When the
+ * maximum amount of pages is full the least recently used glyphs which aren't referenced by unrendered text are evicted
+ * and their space is reused. Every eviction changes {@link #getAtlasVersion()} so text built before has to be rebuilt.
+ */
 public class Font {
-    public AbstractTexture texture;
+    private static final int SDF_HEIGHT = 48;
+    private static final int SDF_PADDING = 6;
+    private static final byte SDF_ON_EDGE = (byte) 128;
+    private static final float SDF_PIXEL_DIST_SCALE = 128f / SDF_PADDING;
+
+    private static final int PAGE_SIZE = 1024;
+    private static final int PADDING = 1;
+    private static final int MAX_PAGES = 4;
+    private static final int MAX_LAYOUTS = 512;
+
+    // Never written to, new pages and the regions of evicted glyphs are cleared with it
+    private static final ByteBuffer ZEROS = BufferUtils.createByteBuffer(PAGE_SIZE * PAGE_SIZE);
+
+    private final ByteBuffer buffer;
+    private final STBTTFontinfo fontInfo;
+
     private final int height;
     private final float scale;
+    private final float sdfScale;
     private final float ascent;
-    private final Int2ObjectOpenHashMap<CharData> charMap = new Int2ObjectOpenHashMap<>();
-    private static final int size = 2048;
+
+    private final Int2ObjectOpenHashMap<Glyph> glyphs = new Int2ObjectOpenHashMap<>();
+    private final List<Page> pages = new ArrayList<>();
+    private int build;
+
+    // Strings measured or rendered recently, invalidated when a page is evicted
+    private final Map<String, Layout> layouts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Layout> eldest) {
+            return size() > MAX_LAYOUTS;
+        }
+    };
+    private int atlasVersion;
 
     public Font(ByteBuffer buffer, int height) {
+        this.buffer = buffer;
         this.height = height;
 
-        // Initialize font
-        STBTTFontinfo fontInfo = STBTTFontinfo.create();
+        // Initialize font, stb keeps reading from the buffer so it needs to stay referenced
+        fontInfo = STBTTFontinfo.create();
         STBTruetype.stbtt_InitFont(fontInfo, buffer);
 
-        // Allocate buffers
-        ByteBuffer bitmap = BufferUtils.createByteBuffer(size * size);
-        STBTTPackedchar.Buffer[] cdata = {
-            STBTTPackedchar.create(95), // Basic Latin
-            STBTTPackedchar.create(96), // Latin 1 Supplement
-            STBTTPackedchar.create(128), // Latin Extended-A
-            STBTTPackedchar.create(144), // Greek and Coptic
-            STBTTPackedchar.create(256), // Cyrillic
-            STBTTPackedchar.create(1) // infinity symbol
-        };
-
-        // create and initialise packing context
-        STBTTPackContext packContext = STBTTPackContext.create();
-        STBTruetype.stbtt_PackBegin(packContext, bitmap, size, size, 0 ,1);
-
-        // create the pack range, populate with the specific packing ranges
-        STBTTPackRange.Buffer packRange = STBTTPackRange.create(cdata.length);
-        packRange.put(STBTTPackRange.create().set(height, 32, null, 95, cdata[0], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 160, null, 96, cdata[1], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 256, null, 128, cdata[2], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 880, null, 144, cdata[3], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 1024, null, 256, cdata[4], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 8734, null, 1, cdata[5], (byte) 2, (byte) 2)); // lol
-        packRange.flip();
-
-        // write and finish
-        STBTruetype.stbtt_PackFontRanges(packContext, buffer, 0, packRange);
-        STBTruetype.stbtt_PackEnd(packContext);
-
-        // Create texture object and get font scale
-        texture = new ByteTexture(size, size, bitmap, ByteTexture.Format.A, ByteTexture.Filter.Linear, ByteTexture.Filter.Linear);
         scale = STBTruetype.stbtt_ScaleForPixelHeight(fontInfo, height);
+        sdfScale = STBTruetype.stbtt_ScaleForPixelHeight(fontInfo, SDF_HEIGHT);
 
         // Get font vertical ascent
         try (MemoryStack stack = MemoryStack.stackPush()) {
@@ -71,41 +79,18 @@ public class Font {
             STBTruetype.stbtt_GetFontVMetrics(fontInfo, ascent, null, null);
             this.ascent = ascent.get(0);
         }
-
-        for (int i = 0; i < cdata.length; i++) {
-            STBTTPackedchar.Buffer cbuf = cdata[i];
-            int offset = packRange.get(i).first_unicode_codepoint_in_range();
-
-            for (int j = 0; j < cbuf.capacity(); j++) {
-                STBTTPackedchar packedChar = cbuf.get(j);
-
-                float ipw = 1f / size; // pixel width and height
-                float iph = 1f / size;
-
-                charMap.put(j + offset, new CharData(
-                    packedChar.xoff(),
-                    packedChar.yoff(),
-                    packedChar.xoff2(),
-                    packedChar.yoff2(),
-                    packedChar.x0() * ipw,
-                    packedChar.y0() * iph,
-                    packedChar.x1() * ipw,
-                    packedChar.y1() * iph,
-                    packedChar.xadvance()
-                ));
-            }
-        }
     }
 
     public double getWidth(String string, int length) {
+        if (length == string.length()) return getLayout(string).width;
+
         double width = 0;
 
-        for (int i = 0; i < length; i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
+        for (int i = 0; i < length; ) {
+            int cp = string.codePointAt(i);
+            i += Character.charCount(cp);
 
-            width += c.xAdvance;
+            width += getGlyph(cp).xAdvance;
         }
 
         return width;
@@ -115,26 +100,317 @@ public class Font {
         return height;
     }
 
-    public double render(Mesh mesh, String string, double x, double y, Color color, double scale) {
+    public double render(TextMesh mesh, String string, double x, double y, Color color, double scale) {
         y += ascent * this.scale * scale;
 
-        for (int i = 0; i < string.length(); i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
+        Layout layout = getLayout(string);
+        float[] q = layout.quads;
+
+        for (int i = 0; i < layout.glyphs.length; i++) {
+            Glyph glyph = layout.glyphs[i];
+            glyph.lastUsed = build;
+
+            Mesh m = mesh.get(glyph.page.index);
+            int j = i * 8;
 
-            mesh.quad(
-                mesh.vec2(x + c.x0 * scale, y + c.y0 * scale).vec2(c.u0, c.v0).color(color).next(),
-                mesh.vec2(x + c.x0 * scale, y + c.y1 * scale).vec2(c.u0, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y1 * scale).vec2(c.u1, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y0 * scale).vec2(c.u1, c.v0).color(color).next()
+            double x0 = x + q[j] * scale;
+            double y0 = y + q[j + 1] * scale;
+            double x1 = x + q[j + 2] * scale;
+            double y1 = y + q[j + 3] * scale;
+
+            m.quad(
+                m.vec2(x0, y0).vec2(q[j + 4], q[j + 5]).color(color).next(),
+                m.vec2(x0, y1).vec2(q[j + 4], q[j + 7]).color(color).next(),
+                m.vec2(x1, y1).vec2(q[j + 6], q[j + 7]).color(color).next(),
+                m.vec2(x1, y0).vec2(q[j + 6], q[j + 5]).color(color).next()
             );
+        }
+
+        return x + layout.width * scale;
+    }
+
+    AbstractTexture getTexture(int page) {
+        return pages.get(page).texture;
+    }
+
+    /** Called after the text using this font was drawn, glyphs used before can be evicted again. */
+    void onRendered() {
+        build++;
+    }
+
+    /** Changes when glyphs are evicted, text built with a different version can reference glyphs which are gone. */
+    int getAtlasVersion() {
+        return atlasVersion;
+    }
+
+    public void destroy() {
+        for (Page page : pages) page.texture.clearGlId();
+
+        pages.clear();
+        glyphs.clear();
+        layouts.clear();
+    }
 
-            x += c.xAdvance * scale;
+    private Layout getLayout(String string) {
+        Layout layout = layouts.get(string);
+
+        if (layout != null && layout.atlasVersion == atlasVersion) {
+            RenderStats.textLayoutHit();
+            return layout;
+        }
+
+        RenderStats.textLayoutMiss();
+
+        Glyph[] glyphs = new Glyph[string.length()];
+        float[] quads = new float[string.length() * 8];
+        int count = 0;
+        float x = 0;
+
+        for (int i = 0; i < string.length(); ) {
+            int cp = string.codePointAt(i);
+            i += Character.charCount(cp);
+
+            Glyph c = getGlyph(cp);
+
+            if (c.page != null) {
+                // Glyphs used by the layout can't be evicted while the rest of it is created
+                c.lastUsed = build;
+                glyphs[count] = c;
+
+                int j = count * 8;
+                quads[j] = x + c.x0;
+                quads[j + 1] = c.y0;
+                quads[j + 2] = x + c.x1;
+                quads[j + 3] = c.y1;
+                quads[j + 4] = c.u0;
+                quads[j + 5] = c.v0;
+                quads[j + 6] = c.u1;
+                quads[j + 7] = c.v1;
+
+                count++;
+            }
+
+            x += c.xAdvance;
+        }
+
+        layout = new Layout(Arrays.copyOf(glyphs, count), Arrays.copyOf(quads, count * 8), x, atlasVersion);
+        layouts.put(string, layout);
+
+        return layout;
+    }
+
+    private Glyph getGlyph(int cp) {
+        Glyph glyph = glyphs.get(cp);
+
+        if (glyph == null) {
+            // Codepoints missing from the font are rendered as a space like before
+            if (cp != ' ' && STBTruetype.stbtt_FindGlyphIndex(fontInfo, cp) == 0) glyph = getGlyph(' ');
+            else glyph = loadGlyph(cp);
+
+            glyphs.put(cp, glyph);
         }
 
-        return x;
+        return glyph;
     }
 
-    private record CharData(float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {}
+    private Glyph loadGlyph(int cp) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advance = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointHMetrics(fontInfo, cp, advance, null);
+            float xAdvance = advance.get(0) * scale;
+
+            IntBuffer width = stack.mallocInt(1);
+            IntBuffer height = stack.mallocInt(1);
+            IntBuffer xOff = stack.mallocInt(1);
+            IntBuffer yOff = stack.mallocInt(1);
+
+            ByteBuffer sdf = STBTruetype.stbtt_GetCodepointSDF(fontInfo, sdfScale, cp, SDF_PADDING, SDF_ON_EDGE, SDF_PIXEL_DIST_SCALE, width, height, xOff, yOff);
+            if (sdf == null) return new Glyph(cp, null, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, xAdvance);
+
+            int w = width.get(0);
+            int h = height.get(0);
+
+            Page page = allocate(w + PADDING, h + PADDING);
+            page.texture.upload(page.allocatedX, page.allocatedY, w, h, copy(sdf, w * h), ByteTexture.Format.A);
+            STBTruetype.stbtt_FreeSDF(sdf);
+
+            // Distance field pixels are converted to pixels of this font's height
+            float toPixels = (float) this.height / SDF_HEIGHT;
+
+            Glyph glyph = new Glyph(
+                cp,
+                page,
+                page.allocatedX,
+                page.allocatedY,
+                w + PADDING,
+                h + PADDING,
+                xOff.get(0) * toPixels,
+                yOff.get(0) * toPixels,
+                (xOff.get(0) + w) * toPixels,
+                (yOff.get(0) + h) * toPixels,
+                (float) page.allocatedX / PAGE_SIZE,
+                (float) page.allocatedY / PAGE_SIZE,
+                (float) (page.allocatedX + w) / PAGE_SIZE,
+                (float) (page.allocatedY + h) / PAGE_SIZE,
+                xAdvance
+            );
+
+            page.glyphs.add(glyph);
+            return glyph;
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer sdf, int size) {
+        // The upload can be deferred to the render thread so the memory owned by stb can't be used directly
+        ByteBuffer buffer = BufferUtils.createByteBuffer(size);
+        MemoryUtil.memCopy(MemoryUtil.memAddress(sdf), MemoryUtil.memAddress(buffer), size);
+        return buffer;
+    }
+
+    private Page allocate(int width, int height) {
+        for (Page page : pages) {
+            if (page.allocate(width, height)) return page;
+        }
+
+        if (pages.size() >= MAX_PAGES) {
+            // Evict the least recently used glyphs which the text built since the last render doesn't use until the new one fits
+            List<Glyph> unused = new ArrayList<>();
+
+            for (Page page : pages) {
+                for (Glyph glyph : page.glyphs) {
+                    if (glyph.lastUsed < build) unused.add(glyph);
+                }
+            }
+
+            unused.sort(Comparator.comparingInt(glyph -> glyph.lastUsed));
+
+            for (Glyph glyph : unused) {
+                evict(glyph);
+                if (glyph.page.allocate(width, height)) return glyph.page;
+            }
+        }
+
+        // Goes past the maximum when every glyph is used by text which wasn't rendered yet
+        Page page = new Page(pages.size());
+        pages.add(page);
+
+        if (!page.allocate(width, height)) throw new IllegalStateException("Glyph of size " + width + "x" + height + " does not fit into a font atlas page.");
+        return page;
+    }
+
+    private void evict(Glyph glyph) {
+        Page page = glyph.page;
+
+        glyphs.remove(glyph.codepoint);
+        page.glyphs.remove(glyph);
+        atlasVersion++;
+
+        page.texture.upload(glyph.x, glyph.y, glyph.width, glyph.height, ZEROS, ByteTexture.Format.A);
+
+        // Empty pages start packing from the top again instead of reusing the fragmented regions
+        if (page.glyphs.isEmpty()) page.reset();
+        else page.free.add(new Region(glyph.x, glyph.y, glyph.width, glyph.height));
+    }
+
+    private class Page {
+        public final int index;
+        public final ByteTexture texture;
+        public final List<Glyph> glyphs = new ArrayList<>();
+        public final List<Region> free = new ArrayList<>();
+
+        public int shelfY, shelfHeight, shelfX;
+        public int allocatedX, allocatedY;
+
+        public Page(int index) {
+            this.index = index;
+            this.texture = new ByteTexture(PAGE_SIZE, PAGE_SIZE, ZEROS, ByteTexture.Format.A, ByteTexture.Filter.Linear, ByteTexture.Filter.Linear);
+        }
+
+        public boolean allocate(int width, int height) {
+            if (width > PAGE_SIZE || height > PAGE_SIZE) return false;
+
+            // Start a new shelf when the current one is full horizontally or too low
+            if (shelfX + width > PAGE_SIZE || height > shelfHeight) {
+                if (shelfX == 0) {
+                    if (shelfY + height > PAGE_SIZE) return allocateFree(width, height);
+                    shelfHeight = height;
+                }
+                else {
+                    if (shelfY + shelfHeight + height > PAGE_SIZE) return allocateFree(width, height);
+
+                    shelfY += shelfHeight;
+                    shelfHeight = height;
+                    shelfX = 0;
+                }
+            }
+
+            allocatedX = shelfX;
+            allocatedY = shelfY;
+            shelfX += width;
+
+            return true;
+        }
+
+        private boolean allocateFree(int width, int height) {
+            Region best = null;
+
+            for (Region region : free) {
+                if (region.width >= width && region.height >= height && (best == null || region.width * region.height < best.width * best.height)) best = region;
+            }
+
+            if (best == null) return false;
+            free.remove(best);
+
+            allocatedX = best.x;
+            allocatedY = best.y;
+
+            // Whatever is left of the region right of and below the glyph can still be used
+            if (best.width > width) free.add(new Region(best.x + width, best.y, best.width - width, height));
+            if (best.height > height) free.add(new Region(best.x, best.y + height, best.width, best.height - height));
+
+            return true;
+        }
+
+        public void reset() {
+            glyphs.clear();
+            free.clear();
+
+            shelfY = 0;
+            shelfHeight = 0;
+            shelfX = 0;
+        }
+    }
+
+    private record Layout(Glyph[] glyphs, float[] quads, float width, int atlasVersion) {}
+
+    private record Region(int x, int y, int width, int height) {}
+
+    private static class Glyph {
+        public final int codepoint;
+        public final Page page;
+        public final int x, y, width, height;
+        public final float x0, y0, x1, y1;
+        public final float u0, v0, u1, v1;
+        public final float xAdvance;
+
+        public int lastUsed;
+
+        public Glyph(int codepoint, Page page, int x, int y, int width, int height, float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {
+            this.codepoint = codepoint;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.u0 = u0;
+            this.v0 = v0;
+            this.u1 = u1;
+            this.v1 = v1;
+            this.xAdvance = xAdvance;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer.text;
+
+import meteordevelopment.meteorclient.renderer.*;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Meshes for text rendered with a {@link Font}, one for every atlas page of the font. Static meshes are no longer valid
+ * once the font evicted glyphs since they were built.
+ */
+public class TextMesh {
+    private final List<Mesh> meshes = new ArrayList<>();
+    private final Mesh.Usage usage;
+    private double alpha = 1;
+
+    private Font font;
+    private int atlasVersion;
+
+    public TextMesh() {
+        this(Mesh.Usage.Stream);
+    }
+
+    public TextMesh(Mesh.Usage usage) {
+        this.usage = usage;
+    }
+
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
+        for (Mesh mesh : meshes) mesh.alpha = alpha;
+    }
+
+    /** @return mesh for glyphs on the page, it is already building */
+    public Mesh get(int page) {
+        while (meshes.size() <= page) {
+            Mesh mesh = new ShaderMesh(Shaders.TEXT_SDF, DrawMode.Triangles, usage, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
+            mesh.alpha = alpha;
+
+            meshes.add(mesh);
+        }
+
+        Mesh mesh = meshes.get(page);
+        if (!mesh.isBuilding()) mesh.begin();
+
+        return mesh;
+    }
+
+    /** Finishes the meshes which are building and renders them, static meshes also render their last valid build. */
+    public void render(Font font, MatrixStack matrices) {
+        if (usage == Mesh.Usage.Static && !isBuilding() && isStale()) invalidate();
+
+        for (int i = 0; i < meshes.size(); i++) {
+            Mesh mesh = meshes.get(i);
+
+            if (mesh.isBuilding()) {
+                mesh.end();
+
+                this.font = font;
+                this.atlasVersion = font.getAtlasVersion();
+            }
+            else if (usage == Mesh.Usage.Stream || !mesh.isValid()) continue;
+
+            GL.bindTexture(font.getTexture(i).getGlId());
+            mesh.render(matrices);
+        }
+
+        font.onRendered();
+    }
+
+    public boolean isValid() {
+        if (isStale()) return false;
+
+        for (Mesh mesh : meshes) {
+            if (mesh.isValid()) return true;
+        }
+
+        return false;
+    }
+
+    public void invalidate() {
+        for (Mesh mesh : meshes) mesh.invalidate();
+    }
+
+    private boolean isBuilding() {
+        for (Mesh mesh : meshes) {
+            if (mesh.isBuilding()) return true;
+        }
+
+        return false;
+    }
+
+    private boolean isStale() {
+        return font != null && font.getAtlasVersion() != atlasVersion;
+    }
+
+    public void destroy() {
+        for (Mesh mesh : meshes) mesh.destroy();
+        meshes.clear();
+    }
+}
@@ -17,11 +17,19 @@ public interface TextRenderer {
 
     void setAlpha(double a);
 
+    /**
+     * @param big ignored, it used to pick a higher resolution font but glyphs are distance fields now which stay sharp at every scale
+     * @deprecated Use {@link #begin(double, boolean)}
+     */
+    @Deprecated
     void begin(double scale, boolean scaleOnly, boolean big);
-    default void begin(double scale) { begin(scale, false, false); }
-    default void begin() { begin(1, false, false); }
+    default void begin(double scale, boolean scaleOnly) { begin(scale, scaleOnly, false); }
+    default void begin(double scale) { begin(scale, false); }
+    default void begin() { begin(1, false); }
 
-    default void beginBig() { begin(1, false, true); }
+    /** @deprecated Same as {@link #begin()}, see {@link #begin(double, boolean, boolean)} */
+    @Deprecated
+    default void beginBig() { begin(); }
 
     double getWidth(String text, int length, boolean shadow);
     default double getWidth(String text, boolean shadow) { return getWidth(text, text.length(), shadow); }
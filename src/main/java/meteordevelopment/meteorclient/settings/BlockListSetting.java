@@ -5,7 +5,9 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import meteordevelopment.meteorclient.utils.misc.RegistryBitSet;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
@@ -22,6 +24,8 @@ import java.util.function.Predicate;
 public class BlockListSetting extends Setting<List<Block>> {
     public final Predicate<Block> filter;
 
+    private volatile RegistryBitSet<Block> bitSet;
+
     public BlockListSetting(String name, String description, List<Block> defaultValue, Consumer<List<Block>> onChanged, Consumer<Setting<List<Block>>> onModuleActivated, Predicate<Block> filter, IVisible visible) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
@@ -31,6 +35,26 @@ public class BlockListSetting extends Setting<List<Block>> {
     @Override
     public void resetImpl() {
         value = new ArrayList<>(defaultValue);
+        bitSet = new RegistryBitSet<>(Registries.BLOCK, value);
+    }
+
+    @Override
+    public void onChanged() {
+        bitSet = new RegistryBitSet<>(Registries.BLOCK, value);
+        super.onChanged();
+    }
+
+    /** Immutable snapshot of the selected blocks, rebuilt every time the setting changes. */
+    public RegistryBitSet<Block> getBitSet() {
+        return bitSet;
+    }
+
+    public boolean contains(Block block) {
+        return bitSet.contains(block);
+    }
+
+    public boolean contains(BlockState state) {
+        return bitSet.contains(state.getBlock());
     }
 
     @Override
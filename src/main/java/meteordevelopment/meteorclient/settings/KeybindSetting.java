@@ -11,14 +11,36 @@ import meteordevelopment.meteorclient.events.meteor.MouseButtonEvent;
 import meteordevelopment.meteorclient.gui.widgets.WKeybind;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
+import meteordevelopment.meteorclient.utils.misc.input.KeybindIndex;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.nbt.NbtCompound;
 import org.lwjgl.glfw.GLFW;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 public class KeybindSetting extends Setting<Keybind> {
+    private static final Keybind NONE = Keybind.none();
+
+    // Settings are only weakly referenced, so settings of discarded modules, macros or hud elements can be collected
+    private static final ReferenceQueue<KeybindSetting> COLLECTED = new ReferenceQueue<>();
+    private static final List<WeakReference<KeybindSetting>> ALL = new ArrayList<>();
+
+    // Settings with an action, dispatched by a single listener instead of every setting listening to every input
+    private static final KeybindIndex<WeakReference<KeybindSetting>> ACTIONS = new KeybindIndex<>(reference -> {
+        KeybindSetting setting = reference.get();
+        return setting != null ? setting.get() : NONE;
+    });
+
+    static {
+        MeteorClient.EVENT_BUS.subscribe(Dispatcher.class);
+    }
+
     private final Runnable action;
     public WKeybind widget;
 
@@ -26,33 +48,27 @@ public class KeybindSetting extends Setting<Keybind> {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
         this.action = action;
-        MeteorClient.EVENT_BUS.subscribe(this);
-    }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    private void onKeyBinding(KeyEvent event) {
-        if (widget == null) return;
-        if (event.action == KeyAction.Press && event.key == GLFW.GLFW_KEY_ESCAPE && widget.onClear()) event.cancel();
-        else if (event.action == KeyAction.Release && widget.onAction(true, event.key, event.modifiers)) event.cancel();
-    }
+        expungeCollected();
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    private void onMouseButtonBinding(MouseButtonEvent event) {
-        if (event.action == KeyAction.Press && widget != null && widget.onAction(false, event.button, 0)) event.cancel();
+        WeakReference<KeybindSetting> reference = new WeakReference<>(this, COLLECTED);
+        ALL.add(reference);
+        if (action != null) ACTIONS.add(reference);
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
-    private void onKey(KeyEvent event) {
-        if (event.action == KeyAction.Release && get().matches(true, event.key, event.modifiers) && (module == null || module.isActive()) && action != null) {
-            action.run();
+    @SuppressWarnings("unchecked")
+    private static void expungeCollected() {
+        for (Reference<? extends KeybindSetting> reference; (reference = COLLECTED.poll()) != null; ) {
+            ALL.remove(reference);
+            ACTIONS.remove((WeakReference<KeybindSetting>) reference);
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
-    private void onMouseButton(MouseButtonEvent event) {
-        if (event.action == KeyAction.Release && get().matches(false, event.button, 0) && (module == null || module.isActive()) && action != null) {
-            action.run();
-        }
+    @Override
+    public void onChanged() {
+        // The value can be replaced instead of modified which the keybind itself doesn't notice
+        Keybind.markChanged();
+        super.onChanged();
     }
 
     @Override
@@ -91,6 +107,61 @@ public class KeybindSetting extends Setting<Keybind> {
         return get();
     }
 
+    private static class Dispatcher {
+        @EventHandler(priority = EventPriority.HIGHEST)
+        private static void onKeyBinding(KeyEvent event) {
+            expungeCollected();
+
+            for (int i = 0; i < ALL.size(); i++) {
+                KeybindSetting setting = ALL.get(i).get();
+                if (setting == null || setting.widget == null) continue;
+
+                WKeybind widget = setting.widget;
+
+                if (event.action == KeyAction.Press && event.key == GLFW.GLFW_KEY_ESCAPE && widget.onClear()) event.cancel();
+                else if (event.action == KeyAction.Release && widget.onAction(true, event.key, event.modifiers)) event.cancel();
+
+                if (event.isCancelled()) return;
+            }
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST)
+        private static void onMouseButtonBinding(MouseButtonEvent event) {
+            if (event.action != KeyAction.Press) return;
+
+            for (int i = 0; i < ALL.size(); i++) {
+                KeybindSetting setting = ALL.get(i).get();
+
+                if (setting != null && setting.widget != null && setting.widget.onAction(false, event.button, 0)) {
+                    event.cancel();
+                    return;
+                }
+            }
+        }
+
+        @EventHandler(priority = EventPriority.HIGH)
+        private static void onKey(KeyEvent event) {
+            if (event.action == KeyAction.Release) onAction(true, event.key, event.modifiers);
+        }
+
+        @EventHandler(priority = EventPriority.HIGH)
+        private static void onMouseButton(MouseButtonEvent event) {
+            if (event.action == KeyAction.Release) onAction(false, event.button, 0);
+        }
+
+        private static void onAction(boolean isKey, int value, int modifiers) {
+            List<WeakReference<KeybindSetting>> bound = ACTIONS.get(isKey, value);
+
+            for (int i = 0; i < bound.size(); i++) {
+                KeybindSetting setting = bound.get(i).get();
+
+                if (setting != null && setting.get().matches(isKey, value, modifiers) && (setting.module == null || setting.module.isActive())) {
+                    setting.action.run();
+                }
+            }
+        }
+    }
+
     public static class Builder extends SettingBuilder<Builder, Keybind, KeybindSetting> {
         private Runnable action;
 
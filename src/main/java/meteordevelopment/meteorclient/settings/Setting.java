@@ -5,6 +5,9 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import meteordevelopment.meteorclient.systems.System;
+import meteordevelopment.meteorclient.systems.Systems;
+import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.IGetter;
@@ -32,6 +35,7 @@ public abstract class Setting<T> implements IGetter<T>, ISerializable<T> {
     private final Consumer<T> onChanged;
 
     public Module module;
+    SettingGroup group;
     public boolean lastWasVisible;
 
     public Setting(String name, String description, T defaultValue, Consumer<T> onChanged, Consumer<Setting<T>> onModuleActivated, IVisible visible) {
@@ -90,6 +94,13 @@ public abstract class Setting<T> implements IGetter<T>, ISerializable<T> {
 
     public void onChanged() {
         if (onChanged != null) onChanged.accept(value);
+        Systems.onSettingChanged(this);
+    }
+
+    /** @return the system saving this setting, null if it isn't saved by one */
+    public Class<? extends System<?>> getOwner() {
+        if (module != null) return Modules.class;
+        return group != null ? group.parent.owner : null;
     }
 
     public void onActivated() {
@@ -5,6 +5,7 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
@@ -19,9 +20,11 @@ public class SettingGroup implements ISerializable<SettingGroup>, Iterable<Setti
     public final String name;
     public boolean sectionExpanded;
 
+    final Settings parent;
     final List<Setting<?>> settings = new ArrayList<>(1);
 
-    SettingGroup(String name, boolean sectionExpanded) {
+    SettingGroup(Settings parent, String name, boolean sectionExpanded) {
+        this.parent = parent;
         this.name = name;
         this.sectionExpanded = sectionExpanded;
     }
@@ -34,8 +37,12 @@ public class SettingGroup implements ISerializable<SettingGroup>, Iterable<Setti
         return null;
     }
 
-    public <T> Setting<T> add(Setting<T> setting) {
+    public <S extends Setting<?>> S add(S setting) {
         settings.add(setting);
+        setting.group = this;
+
+        // Module search indexes setting titles
+        if (parent.owner == Modules.class && Modules.get() != null) Modules.get().invalidateSearchIndex();
 
         return setting;
     }
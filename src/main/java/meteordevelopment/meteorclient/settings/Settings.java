@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.settings;
 
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.widgets.containers.WContainer;
+import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import meteordevelopment.meteorclient.utils.misc.NbtUtils;
@@ -25,6 +26,17 @@ public class Settings implements ISerializable<Settings>, Iterable<SettingGroup>
     private SettingGroup defaultGroup;
     public final List<SettingGroup> groups = new ArrayList<>(1);
 
+    /** System which saves these settings and is marked dirty when one of them changes, can be null */
+    public final Class<? extends System<?>> owner;
+
+    public Settings() {
+        this(null);
+    }
+
+    public Settings(Class<? extends System<?>> owner) {
+        this.owner = owner;
+    }
+
     public void onActivated() {
         for (SettingGroup group : groups) {
             for (Setting<?> setting : group) {
@@ -69,7 +81,7 @@ public class Settings implements ISerializable<Settings>, Iterable<SettingGroup>
     }
 
     public SettingGroup createGroup(String name, boolean expanded) {
-        SettingGroup group = new SettingGroup(name, expanded);
+        SettingGroup group = new SettingGroup(this, name, expanded);
         groups.add(group);
         return group;
     }
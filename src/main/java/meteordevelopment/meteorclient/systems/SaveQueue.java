@@ -0,0 +1,81 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Writes system files on a single background thread. Queued writes of the same file are coalesced so only the newest
+ * snapshot is written, and files are replaced atomically so a crash while writing never leaves a truncated file.
+ */
+public class SaveQueue {
+    private static final Map<Path, NbtCompound> pending = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.setName("Meteor-Save");
+        return thread;
+    });
+
+    private SaveQueue() {
+    }
+
+    /** Queues the tag to be written, it must not be modified afterwards. */
+    public static void write(NbtCompound tag, File file) {
+        Path path = file.toPath();
+
+        // If a write of this file is still queued it picks up the new tag
+        if (pending.put(path, tag) == null) {
+            executor.execute(() -> {
+                NbtCompound latest = pending.remove(path);
+                if (latest != null) writeNow(latest, path);
+            });
+        }
+    }
+
+    /** Blocks until all queued writes are finished. */
+    public static void flush() {
+        try {
+            executor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            MeteorClient.LOG.error("Failed to wait for pending saves.", e);
+        }
+    }
+
+    /** Runs the task on the client thread every {@code seconds} seconds. */
+    static void schedule(Runnable task, long seconds) {
+        executor.scheduleWithFixedDelay(() -> MeteorClient.mc.execute(task), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    private static void writeNow(NbtCompound tag, Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+
+            Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+            NbtIo.write(tag, tempPath);
+
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Error writing to file '{}'.", path.getFileName(), e);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Locale;
 public abstract class System<T> implements ISerializable<T> {
     private final String name;
     private File file;
+    private volatile boolean dirty;
 
     protected boolean isFirstInit;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
@@ -37,25 +38,19 @@ public abstract class System<T> implements ISerializable<T> {
 
     public void init() {}
 
+    /** Serializes the system on the calling thread and queues the file to be written on the save thread. */
     public void save(File folder) {
         File file = getFile();
         if (file == null) return;
 
+        // Changes made from now on are picked up by the next save
+        if (folder == null) dirty = false;
+
         NbtCompound tag = toTag();
         if (tag == null) return;
 
-        try {
-            File tempFile = File.createTempFile(MeteorClient.MOD_ID, file.getName());
-            NbtIo.write(tag, tempFile.toPath());
-
-            if (folder != null) file = new File(folder, file.getName());
-
-            file.getParentFile().mkdirs();
-            StreamUtils.copy(tempFile, file);
-            tempFile.delete();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        if (folder != null) file = new File(folder, file.getName());
+        SaveQueue.write(tag, file);
     }
 
     public void save() {
@@ -63,37 +58,70 @@ public abstract class System<T> implements ISerializable<T> {
     }
 
     public void load(File folder) {
-        File file = getFile();
-        if (file == null) return;
+        load(folder, read(folder));
+    }
+
+    /** Reads the file of the system without loading it, can be called from any thread. */
+    public NbtCompound read(File folder) {
+        File file = getFile(folder);
+        if (file == null) return null;
+
+        // Don't read a file which is still queued to be written
+        SaveQueue.flush();
 
         try {
-            if (folder != null) file = new File(folder, file.getName());
-
-            if (file.exists()) {
-                try {
-                    fromTag(NbtIo.read(file.toPath()));
-                } catch (CrashException e) {
-                    String backupName = FilenameUtils.removeExtension(file.getName()) + "-" + ZonedDateTime.now().format(DATE_TIME_FORMATTER) + ".backup.nbt";
-                    File backup = new File(file.getParentFile(), backupName);
-                    StreamUtils.copy(file, backup);
-                    MeteorClient.LOG.error("Error loading {}. Possibly corrupted?", this.name);
-                    MeteorClient.LOG.info("Saved settings backup to '{}'.", backup);
-                    e.printStackTrace();
-                }
-            }
+            if (file.exists()) return NbtIo.read(file.toPath());
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        return null;
+    }
+
+    /** Loads a tag returned by {@link #read(File)}, must be called on the client thread. */
+    public void load(File folder, NbtCompound tag) {
+        if (tag == null) return;
+
+        try {
+            fromTag(tag);
+
+            // Loading sets every setting, which isn't a change that needs to be saved
+            if (folder == null) dirty = false;
+        } catch (CrashException e) {
+            File file = getFile(folder);
+            String backupName = FilenameUtils.removeExtension(file.getName()) + "-" + ZonedDateTime.now().format(DATE_TIME_FORMATTER) + ".backup.nbt";
+            File backup = new File(file.getParentFile(), backupName);
+            StreamUtils.copy(file, backup);
+            MeteorClient.LOG.error("Error loading {}. Possibly corrupted?", this.name);
+            MeteorClient.LOG.info("Saved settings backup to '{}'.", backup);
+            e.printStackTrace();
+        }
     }
 
     public void load() {
         load(null);
     }
 
+    /** Saves the system with the next autosave. */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
     public File getFile() {
         return file;
     }
 
+    private File getFile(File folder) {
+        File file = getFile();
+        if (file == null || folder == null) return file;
+
+        return new File(folder, file.getName());
+    }
+
     public String getName() {
         return name;
     }
@@ -8,6 +8,7 @@ package meteordevelopment.meteorclient.systems;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.settings.Setting;
 import meteordevelopment.meteorclient.systems.accounts.Accounts;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.friends.Friends;
@@ -18,13 +19,18 @@ import meteordevelopment.meteorclient.systems.profiles.Profiles;
 import meteordevelopment.meteorclient.systems.proxies.Proxies;
 import meteordevelopment.meteorclient.systems.waypoints.Waypoints;
 import meteordevelopment.orbit.EventHandler;
+import net.minecraft.nbt.NbtCompound;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public class Systems {
+    private static final long AUTOSAVE_INTERVAL = 5;
+
     @SuppressWarnings("rawtypes")
     private static final Map<Class<? extends System>, System<?>> systems = new Reference2ReferenceOpenHashMap<>();
     private static final List<Runnable> preLoadTasks = new ArrayList<>(1);
@@ -52,6 +58,7 @@ public class Systems {
         add(new Hud());
 
         MeteorClient.EVENT_BUS.subscribe(Systems.class);
+        SaveQueue.schedule(Systems::saveDirty, AUTOSAVE_INTERVAL);
     }
 
     private static System<?> add(System<?> system) {
@@ -66,14 +73,32 @@ public class Systems {
 
     @EventHandler
     private static void onGameLeft(GameLeftEvent event) {
-        save();
+        saveDirty();
+    }
+
+    /** Marks the system saving the setting as dirty. */
+    public static void onSettingChanged(Setting<?> setting) {
+        Class<? extends System<?>> owner = setting.getOwner();
+        if (owner == null) return;
+
+        System<?> system = systems.get(owner);
+        if (system != null) system.markDirty();
+    }
+
+    /** Snapshots the systems which changed since they were last saved, the files are written on the save thread. */
+    public static void saveDirty() {
+        for (System<?> system : systems.values()) {
+            if (system.isDirty()) system.save();
+        }
     }
 
+    /** Saves all systems and waits until the files are written. */
     public static void save(File folder) {
         long start = java.lang.System.currentTimeMillis();
         MeteorClient.LOG.info("Saving");
 
         for (System<?> system : systems.values()) system.save(folder);
+        SaveQueue.flush();
 
         MeteorClient.LOG.info("Saved in {} milliseconds.", java.lang.System.currentTimeMillis() - start);
     }
@@ -83,11 +108,16 @@ public class Systems {
     }
 
     public static void load(File folder) {
+        load(folder, system -> system.read(folder));
+    }
+
+    /** Loads every system from the tag returned by the reader, which can wait for a file read on another thread. */
+    public static void load(File folder, Function<System<?>, NbtCompound> reader) {
         long start = java.lang.System.currentTimeMillis();
         MeteorClient.LOG.info("Loading");
 
         for (Runnable task : preLoadTasks) task.run();
-        for (System<?> system : systems.values()) system.load(folder);
+        for (System<?> system : systems.values()) system.load(folder, reader.apply(system));
 
         MeteorClient.LOG.info("Loaded in {} milliseconds", java.lang.System.currentTimeMillis() - start);
     }
@@ -96,6 +126,10 @@ public class Systems {
         load(null);
     }
 
+    public static Collection<System<?>> getAll() {
+        return systems.values();
+    }
+
     @SuppressWarnings("unchecked")
     public static <T extends System<?>> T get(Class<T> klass) {
         return (T) systems.get(klass);
@@ -32,7 +32,7 @@ public class Accounts extends System<Accounts> implements Iterable<Account<?>> {
 
     public void add(Account<?> account) {
         accounts.add(account);
-        save();
+        markDirty();
     }
 
     public boolean exists(Account<?> account) {
@@ -41,7 +41,7 @@ public class Accounts extends System<Accounts> implements Iterable<Account<?>> {
 
     public void remove(Account<?> account) {
         if (accounts.remove(account)) {
-            save();
+            markDirty();
         }
     }
 
@@ -23,7 +23,7 @@ import java.util.List;
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 public class Config extends System<Config> {
-    public final Settings settings = new Settings();
+    public final Settings settings = new Settings(Config.class);
 
     private final SettingGroup sgVisual = settings.createGroup("Visual");
     private final SettingGroup sgChat = settings.createGroup("Chat");
@@ -73,6 +73,13 @@ public class Config extends System<Config> {
         .build()
     );
 
+    public final Setting<Boolean> cacheGuiWindows = sgVisual.add(new BoolSetting.Builder()
+        .name("cache-gui-windows")
+        .description("Renders gui windows into framebuffers and only redraws them when they change or are hovered.")
+        .defaultValue(false)
+        .build()
+    );
+
     public final Setting<SettingColor> friendColor = sgVisual.add(new ColorSetting.Builder()
         .name("friend-color")
         .description("The color used to show friends.")
@@ -128,6 +135,14 @@ public class Config extends System<Config> {
         .build()
     );
 
+    public final Setting<Integer> moduleReleaseDelay = sgMisc.add(new IntSetting.Builder()
+        .name("module-release-delay")
+        .description("Seconds after disabling a module until its buffers, threads and caches are freed.")
+        .defaultValue(60)
+        .min(0).sliderMax(600)
+        .build()
+    );
+
     public final Setting<Boolean> showAccountManager = sgMisc.add(new BoolSetting.Builder()
         .name("show-account-manager")
         .description("Render the account manager on the Multiplayer screen.")
@@ -37,7 +37,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
 
         if (!friends.contains(friend)) {
             friends.add(friend);
-            save();
+            markDirty();
 
             return true;
         }
@@ -47,7 +47,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
 
     public boolean remove(Friend friend) {
         if (friends.remove(friend)) {
-            save();
+            markDirty();
             return true;
         }
 
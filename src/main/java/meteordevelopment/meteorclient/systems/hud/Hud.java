@@ -31,7 +31,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
     public static final HudGroup GROUP = new HudGroup("Meteor");
 
     public boolean active;
-    public Settings settings = new Settings();
+    public Settings settings = new Settings(Hud.class);
 
     public final Map<String, HudElementInfo<?>> infos = new TreeMap<>();
     private final List<HudElement> elements = new ArrayList<>();
@@ -150,6 +150,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
         element.settings.registerColorSettings(null);
 
         elements.add(element);
+        markDirty();
     }
 
     public void add(HudElementInfo<?> info, int x, int y, XAnchor xAnchor, YAnchor yAnchor) {
@@ -174,10 +175,12 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
     void remove(HudElement element) {
         element.settings.unregisterColorSettings();
         elements.remove(element);
+        markDirty();
     }
 
     public void clear() {
         elements.clear();
+        markDirty();
     }
 
     public void resetToDefaultElements() {
@@ -186,6 +189,7 @@ public class Hud extends System<Hud> implements Iterable<HudElement> {
 
     private void resetToDefaultElementsImpl() {
         elements.clear();
+        markDirty();
 
         int h = (int) Math.ceil(HudRenderer.INSTANCE.textHeight(true));
 
@@ -18,7 +18,7 @@ public abstract class HudElement implements Snapper.Element, ISerializable<HudEl
     public final HudElementInfo<?> info;
     private boolean active;
 
-    public final Settings settings = new Settings();
+    public final Settings settings = new Settings(Hud.class);
     public final HudBox box = new HudBox(this);
 
     public boolean autoAnchors = true;
@@ -35,6 +35,7 @@ public abstract class HudElement implements Snapper.Element, ISerializable<HudEl
 
     public void toggle() {
         active = !active;
+        Hud.get().markDirty();
     }
 
     public void setSize(double width, double height) {
@@ -54,12 +55,14 @@ public abstract class HudElement implements Snapper.Element, ISerializable<HudEl
         }
 
         updatePos();
+        Hud.get().markDirty();
     }
 
     @Override
     public void move(int deltaX, int deltaY) {
         box.move(deltaX, deltaY);
         updatePos();
+        Hud.get().markDirty();
     }
 
     public void updatePos() {
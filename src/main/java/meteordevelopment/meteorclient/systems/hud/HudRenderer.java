@@ -5,16 +5,12 @@
 
 package meteordevelopment.meteorclient.systems.hud;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.meteor.CustomFontChangedEvent;
 import meteordevelopment.meteorclient.renderer.*;
 import meteordevelopment.meteorclient.renderer.text.CustomTextRenderer;
 import meteordevelopment.meteorclient.renderer.text.Font;
+import meteordevelopment.meteorclient.renderer.text.TextMesh;
 import meteordevelopment.meteorclient.renderer.text.VanillaTextRenderer;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.RenderUtils;
@@ -27,9 +23,7 @@ import net.minecraft.util.Identifier;
 import org.lwjgl.BufferUtils;
 
 import java.nio.ByteBuffer;
-import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public class HudRenderer {
@@ -40,15 +34,9 @@ public class HudRenderer {
     private final Hud hud = Hud.get();
     private final List<Runnable> postTasks = new ArrayList<>();
 
-    private final Int2ObjectMap<FontHolder> fontsInUse = new Int2ObjectOpenHashMap<>();
-    private final LoadingCache<Integer, FontHolder> fontCache = CacheBuilder.newBuilder()
-        .maximumSize(4)
-        .expireAfterAccess(Duration.ofMinutes(10))
-        .removalListener(notification -> {
-            if (notification.wasEvicted())
-                ((FontHolder) notification.getValue()).destroy();
-        })
-        .build(CacheLoader.from(HudRenderer::loadFont));
+    // A single distance field font is scaled to every text scale
+    private final TextMesh fontMesh = new TextMesh();
+    private Font font;
 
     public DrawContext drawContext;
     public double delta;
@@ -73,21 +61,7 @@ public class HudRenderer {
         Renderer2D.COLOR.render(new MatrixStack());
 
         if (hud.hasCustomFont()) {
-            // Render fonts that were visited this frame and move to cache which weren't visited
-            for (Iterator<FontHolder> it = fontsInUse.values().iterator(); it.hasNext(); ) {
-                FontHolder fontHolder = it.next();
-
-                if (fontHolder.visited) {
-                    GL.bindTexture(fontHolder.font.texture.getGlId());
-                    fontHolder.getMesh().render(null);
-                }
-                else {
-                    it.remove();
-                    fontCache.put(fontHolder.font.getHeight(), fontHolder);
-                }
-
-                fontHolder.visited = false;
-            }
+            if (font != null) fontMesh.render(font, null);
         }
         else {
             VanillaTextRenderer.INSTANCE.end();
@@ -132,10 +106,8 @@ public class HudRenderer {
             return VanillaTextRenderer.INSTANCE.render(text, x, y, color, shadow);
         }
 
-        FontHolder fontHolder = getFontHolder(scale, true);
-
-        Font font = fontHolder.font;
-        Mesh mesh = fontHolder.getMesh();
+        Font font = getFont();
+        double fontScale = getFontScale(scale);
 
         double width;
 
@@ -143,13 +115,13 @@ public class HudRenderer {
             int preShadowA = CustomTextRenderer.SHADOW_COLOR.a;
             CustomTextRenderer.SHADOW_COLOR.a = (int) (color.a / 255.0 * preShadowA);
 
-            width = font.render(mesh, text, x + 1, y + 1, CustomTextRenderer.SHADOW_COLOR, scale);
-            font.render(mesh, text, x, y, color, scale);
+            width = font.render(fontMesh, text, x + 1, y + 1, CustomTextRenderer.SHADOW_COLOR, fontScale);
+            font.render(fontMesh, text, x, y, color, fontScale);
 
             CustomTextRenderer.SHADOW_COLOR.a = preShadowA;
         }
         else {
-            width = font.render(mesh, text, x, y, color, scale);
+            width = font.render(fontMesh, text, x, y, color, fontScale);
         }
 
         return width;
@@ -162,8 +134,10 @@ public class HudRenderer {
         if (text.isEmpty()) return 0;
 
         if (hud.hasCustomFont()) {
-            double width = getFont(scale).getWidth(text, text.length());
-            return (width + (shadow ? 1 : 0)) * (scale == -1 ? hud.getTextScale() : scale) + (shadow ? 1 : 0);
+            if (scale == -1) scale = hud.getTextScale();
+
+            double width = getFont().getWidth(text, text.length()) * getFontScale(scale);
+            return width + (shadow ? 1 : 0) * scale + (shadow ? 1 : 0);
         }
 
         VanillaTextRenderer.INSTANCE.scale = (scale == -1 ? hud.getTextScale() : scale) * 2;
@@ -181,8 +155,10 @@ public class HudRenderer {
 
     public double textHeight(boolean shadow, double scale) {
         if (hud.hasCustomFont()) {
-            double height = getFont(scale).getHeight() + 1;
-            return (height + (shadow ? 1 : 0)) * (scale == -1 ? hud.getTextScale() : scale);
+            if (scale == -1) scale = hud.getTextScale();
+
+            double height = getFontHeight(scale) + 1;
+            return (height + (shadow ? 1 : 0)) * scale;
         }
 
         VanillaTextRenderer.INSTANCE.scale = (scale == -1 ? hud.getTextScale() : scale) * 2;
@@ -207,75 +183,33 @@ public class HudRenderer {
         RenderUtils.drawItem(drawContext, itemStack, x, y, scale, overlay);
     }
 
-    private FontHolder getFontHolder(double scale, boolean render) {
-        // Calculate font height
-        if (scale == -1) scale = hud.getTextScale();
-        int height = (int) Math.round(scale / SCALE_TO_HEIGHT);
-
-        // Check fonts in use
-        FontHolder fontHolder = fontsInUse.get(height);
-        if (fontHolder != null) {
-            if (render) fontHolder.visited = true;
-            return fontHolder;
-        }
+    private int getFontHeight(double scale) {
+        return (int) Math.round(scale / SCALE_TO_HEIGHT);
+    }
 
-        // Create font if not in cache otherwise remove from cache and add to fonts in use
-        if (render) {
-            fontHolder = fontCache.getIfPresent(height);
-            if (fontHolder == null) fontHolder = loadFont(height);
-            else fontCache.invalidate(height);
+    /** @return scale for the font which renders text the same size as a font with the height for this text scale */
+    private double getFontScale(double scale) {
+        return (double) getFontHeight(scale) / getFont().getHeight() * scale;
+    }
 
-            fontsInUse.put(height, fontHolder);
-            fontHolder.visited = true;
+    private Font getFont() {
+        if (font == null) {
+            byte[] data = Utils.readBytes(Fonts.RENDERER.fontFace.toStream());
+            ByteBuffer buffer = BufferUtils.createByteBuffer(data.length).put(data).flip();
 
-            return fontHolder;
+            font = new Font(buffer, 18);
         }
 
-        // Otherwise get from cache
-        return fontCache.getUnchecked(height);
-    }
-
-    private Font getFont(double scale) {
-        return getFontHolder(scale, false).font;
+        return font;
     }
 
     @EventHandler
     private void onCustomFontChanged(CustomFontChangedEvent event) {
-        // Need to destroy both fonts in use and in cache because they were not evicted from the cache automatically
-        for (FontHolder fontHolder : fontsInUse.values()) fontHolder.destroy();
-        for (FontHolder fontHolder : fontCache.asMap().values()) fontHolder.destroy();
-
-        // Clear collections
-        fontsInUse.clear();
-        fontCache.invalidateAll();
-    }
-
-    private static FontHolder loadFont(int height) {
-        byte[] data = Utils.readBytes(Fonts.RENDERER.fontFace.toStream());
-        ByteBuffer buffer = BufferUtils.createByteBuffer(data.length).put(data).flip();
-
-        return new FontHolder(new Font(buffer, height));
-    }
-
-    private static class FontHolder {
-        public final Font font;
-        public boolean visited;
-
-        private Mesh mesh;
-
-        public FontHolder(Font font) {
-            this.font = font;
+        if (font != null) {
+            font.destroy();
+            font = null;
         }
 
-        public Mesh getMesh() {
-            if (mesh == null) mesh = new ShaderMesh(Shaders.TEXT, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
-            if (!mesh.isBuilding()) mesh.begin();
-            return mesh;
-        }
-
-        public void destroy() {
-            font.texture.clearGlId();
-            if (mesh != null) mesh.destroy();
-        }
+        fontMesh.destroy();
     }
 }
@@ -303,7 +303,7 @@ public class CombatHud extends HudElement {
                 }
             }
 
-            TextRenderer.get().begin(0.45 * scale.get(), false, true);
+            TextRenderer.get().begin(0.45 * scale.get(), false);
 
             double breakWidth = TextRenderer.get().getWidth(breakText);
             double pingWidth = TextRenderer.get().getWidth(pingText);
@@ -346,7 +346,7 @@ public class CombatHud extends HudElement {
             x /= scale.get();
             y /= scale.get();
 
-            TextRenderer.get().begin(0.35, false, true);
+            TextRenderer.get().begin(0.35, false);
 
             for (int position = 0; position < 6; position++) {
                 armorX = x + position * 20;
@@ -8,6 +8,7 @@ package meteordevelopment.meteorclient.systems.hud.screens;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WidgetScreen;
 import meteordevelopment.meteorclient.gui.tabs.builtin.HudTab;
+import meteordevelopment.meteorclient.renderer.Mesh;
 import meteordevelopment.meteorclient.renderer.Renderer2D;
 import meteordevelopment.meteorclient.systems.hud.Hud;
 import meteordevelopment.meteorclient.systems.hud.HudElement;
@@ -39,6 +40,11 @@ public class HudEditorScreen extends WidgetScreen implements Snapper.Container {
     private static final Color SELECTION_BG_COLOR = new Color(225, 225, 225, 25);
     private static final Color SELECTION_OL_COLOR = new Color(225, 225, 225, 100);
 
+    // Drawn again without rebuilding while the lines are fully faded in and the window keeps its size
+    private static Renderer2D splitLines;
+    private static double splitLinesWidth, splitLinesHeight;
+    private static int splitLinesAlpha = -1;
+
     private final Hud hud;
 
     private final Snapper snapper;
@@ -305,26 +311,36 @@ public class HudEditorScreen extends WidgetScreen implements Snapper.Container {
         else splitLinesAnimation -= delta * 6;
         splitLinesAnimation = MathHelper.clamp(splitLinesAnimation, 0, 1);
 
-        Renderer2D renderer = Renderer2D.COLOR;
-        renderer.begin();
-
         double w = Utils.getWindowWidth();
         double h = Utils.getWindowHeight();
-        double w3 = w / 3.0;
-        double h3 = h / 3.0;
+        int alpha = (int) (SPLIT_LINES_COLOR.a * splitLinesAnimation);
+
+        if (splitLines == null) splitLines = new Renderer2D(false, Mesh.Usage.Static);
+
+        if (!splitLines.isValid() || w != splitLinesWidth || h != splitLinesHeight || alpha != splitLinesAlpha) {
+            splitLines.begin();
 
-        int prevA = SPLIT_LINES_COLOR.a;
-        SPLIT_LINES_COLOR.a *= splitLinesAnimation;
+            double w3 = w / 3.0;
+            double h3 = h / 3.0;
 
-        renderSplitLine(renderer, w3, 0, w3, h);
-        renderSplitLine(renderer, w3 * 2, 0, w3 * 2, h);
+            int prevA = SPLIT_LINES_COLOR.a;
+            SPLIT_LINES_COLOR.a = alpha;
 
-        renderSplitLine(renderer, 0, h3, w, h3);
-        renderSplitLine(renderer, 0, h3 * 2, w, h3 * 2);
+            renderSplitLine(splitLines, w3, 0, w3, h);
+            renderSplitLine(splitLines, w3 * 2, 0, w3 * 2, h);
 
-        SPLIT_LINES_COLOR.a = prevA;
+            renderSplitLine(splitLines, 0, h3, w, h3);
+            renderSplitLine(splitLines, 0, h3 * 2, w, h3 * 2);
+
+            SPLIT_LINES_COLOR.a = prevA;
+            splitLines.end();
+
+            splitLinesWidth = w;
+            splitLinesHeight = h;
+            splitLinesAlpha = alpha;
+        }
 
-        renderer.render(new MatrixStack());
+        splitLines.render(new MatrixStack());
     }
 
     private void renderSplitLine(Renderer2D renderer, double x, double y, double destX, double destY) {
@@ -17,6 +17,7 @@ import meteordevelopment.meteorclient.settings.BoolSetting;
 import meteordevelopment.meteorclient.settings.EnumSetting;
 import meteordevelopment.meteorclient.settings.SettingGroup;
 import meteordevelopment.meteorclient.settings.Settings;
+import meteordevelopment.meteorclient.systems.hud.Hud;
 import meteordevelopment.meteorclient.systems.hud.HudElement;
 import meteordevelopment.meteorclient.systems.hud.XAnchor;
 import meteordevelopment.meteorclient.systems.hud.YAnchor;
@@ -37,7 +38,7 @@ public class HudElementScreen extends WindowScreen {
 
         this.element = element;
 
-        settings = new Settings();
+        settings = new Settings(Hud.class);
         SettingGroup sg = settings.createGroup("Anchors");
         sg.add(new BoolSetting.Builder()
             .name("auto-anchors")
@@ -12,6 +12,7 @@ import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.Systems;
 import meteordevelopment.meteorclient.utils.misc.NbtUtils;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
+import meteordevelopment.meteorclient.utils.misc.input.KeybindIndex;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.nbt.NbtCompound;
@@ -23,6 +24,7 @@ import java.util.List;
 
 public class Macros extends System<Macros> implements Iterable<Macro> {
     private List<Macro> macros = new ArrayList<>();
+    private final KeybindIndex<Macro> keybinds = new KeybindIndex<>(macro -> macro.keybind.get());
 
     public Macros() {
         super("macros");
@@ -34,8 +36,9 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
 
     public void add(Macro macro) {
         macros.add(macro);
+        keybinds.add(macro);
         MeteorClient.EVENT_BUS.subscribe(macro);
-        save();
+        markDirty();
     }
 
     public Macro get(String name) {
@@ -52,8 +55,9 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
 
     public void remove(Macro macro) {
         if (macros.remove(macro)) {
+            keybinds.remove(macro);
             MeteorClient.EVENT_BUS.unsubscribe(macro);
-            save();
+            markDirty();
         }
     }
 
@@ -61,8 +65,10 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
     private void onKey(KeyEvent event) {
         if (event.action == KeyAction.Release) return;
 
-        for (Macro macro : macros) {
-            if (macro.onAction(true, event.key, event.modifiers)) return;
+        List<Macro> bound = keybinds.get(true, event.key);
+
+        for (int i = 0; i < bound.size(); i++) {
+            if (bound.get(i).onAction(true, event.key, event.modifiers)) return;
         }
     }
 
@@ -70,8 +76,10 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
     private void onButton(MouseButtonEvent event) {
         if (event.action == KeyAction.Release) return;
 
-        for (Macro macro : macros) {
-            if (macro.onAction(false, event.button, 0)) return;
+        List<Macro> bound = keybinds.get(false, event.button);
+
+        for (int i = 0; i < bound.size(); i++) {
+            if (bound.get(i).onAction(false, event.button, 0)) return;
         }
     }
 
@@ -96,8 +104,12 @@ public class Macros extends System<Macros> implements Iterable<Macro> {
         for (Macro macro : macros) MeteorClient.EVENT_BUS.unsubscribe(macro);
 
         macros = NbtUtils.listFromTag(tag.getList("macros", 10), Macro::new);
+        keybinds.clear();
 
-        for (Macro macro : macros) MeteorClient.EVENT_BUS.subscribe(macro);
+        for (Macro macro : macros) {
+            keybinds.add(macro);
+            MeteorClient.EVENT_BUS.subscribe(macro);
+        }
         return this;
     }
 }
@@ -37,9 +37,10 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
     public final Color color;
 
     public final MeteorAddon addon;
-    public final Settings settings = new Settings();
+    public final Settings settings = new Settings(Modules.class);
 
     private boolean active;
+    private boolean allocated;
     public boolean disabled;
     public boolean isCheat;
 
@@ -85,6 +86,31 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
     public void onActivate() {}
     public void onDeactivate() {}
 
+    /**
+     * Creates heavy resources like gpu buffers or threads. Called before the first activation and again after the
+     * resources were released, so modules which are never enabled don't allocate anything.
+     */
+    protected void onAllocate() {}
+
+    /** Frees what {@link #onAllocate()} created, called after the module has been inactive for the configured delay. */
+    protected void onRelease() {}
+
+    /** @return estimate of the heap and off-heap memory in bytes retained by the module */
+    public long getRetainedMemory() {
+        return 0;
+    }
+
+    public boolean isAllocated() {
+        return allocated;
+    }
+
+    void release() {
+        if (!allocated || active) return;
+
+        allocated = false;
+        onRelease();
+    }
+
     public void activate() {
         activate(true);
     }
@@ -93,6 +119,11 @@ public abstract class Module implements ISerializable<Module>, Comparable<Module
         if (!isEnabled()) { return; }
         if (active) { return; }
 
+        if (!allocated) {
+            allocated = true;
+            onAllocate();
+        }
+
         active = true;
         Modules.get().addActive(this);
 
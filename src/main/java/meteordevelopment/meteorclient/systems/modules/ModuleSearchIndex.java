@@ -0,0 +1,254 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import meteordevelopment.meteorclient.settings.Setting;
+import meteordevelopment.meteorclient.settings.SettingGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lowercased module titles, aliases and setting titles prepared once so searching doesn't allocate per candidate.
+ * Candidates sharing trigrams with the query are scored first, once the result list is full the distance calculation
+ * of the remaining candidates stops as soon as it can no longer beat the worst result. Scores are the same as
+ * {@link meteordevelopment.meteorclient.utils.Utils#searchLevenshteinDefault(String, String, boolean)}.
+ */
+class ModuleSearchIndex {
+    private static final int INS_COST = 1, SUB_COST = 8, DEL_COST = 8;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Int2ObjectOpenHashMap<IntArrayList> titleTrigrams = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectOpenHashMap<IntArrayList> settingTrigrams = new Int2ObjectOpenHashMap<>();
+
+    // Scratch
+    private int[] previousRow = new int[32], currentRow = new int[32];
+    private int[] hits = new int[0];
+    private int[] order = new int[0];
+    private Module[] results = new Module[0];
+    private int[] resultScores = new int[0];
+    private int resultCount;
+
+    void build(Iterable<Module> modules) {
+        entries.clear();
+        titleTrigrams.clear();
+        settingTrigrams.clear();
+
+        for (Module module : modules) {
+            int index = entries.size();
+
+            char[] title = lower(module.title);
+            char[][] aliases = new char[module.aliases.length][];
+            for (int i = 0; i < aliases.length; i++) aliases[i] = lower(module.aliases[i]);
+
+            List<char[]> settings = new ArrayList<>();
+            for (SettingGroup sg : module.settings) {
+                for (Setting<?> setting : sg) settings.add(lower(setting.title));
+            }
+
+            Entry entry = new Entry(module, title, aliases, settings.toArray(new char[0][]));
+            entries.add(entry);
+
+            addTrigrams(titleTrigrams, title, index);
+            for (char[] alias : aliases) addTrigrams(titleTrigrams, alias, index);
+            for (char[] setting : entry.settings) addTrigrams(settingTrigrams, setting, index);
+        }
+
+        hits = new int[entries.size()];
+        order = new int[entries.size()];
+    }
+
+    /** @return up to {@code limit} enabled modules ordered by how close their title or one of their aliases is */
+    List<Module> searchTitles(String text, boolean aliases, int limit) {
+        char[] filter = lower(text);
+        begin(titleTrigrams, filter, limit);
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(order[i]);
+            if (!entry.module.isEnabled()) continue;
+
+            int bound = getBound(limit);
+            int score = distance(filter, entry.title, bound);
+
+            if (aliases) {
+                for (char[] alias : entry.aliases) score = Math.min(score, distance(filter, alias, Math.min(bound, score)));
+            }
+
+            offer(entry.module, score, limit);
+        }
+
+        return end();
+    }
+
+    /** @return up to {@code limit} enabled modules ordered by how close the title of their closest setting is */
+    List<Module> searchSettingTitles(String text, int limit) {
+        char[] filter = lower(text);
+        begin(settingTrigrams, filter, limit);
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(order[i]);
+            if (!entry.module.isEnabled()) continue;
+
+            int bound = getBound(limit);
+            int score = Integer.MAX_VALUE;
+
+            for (char[] setting : entry.settings) score = Math.min(score, distance(filter, setting, Math.min(bound, score)));
+
+            offer(entry.module, score, limit);
+        }
+
+        return end();
+    }
+
+    // Ranking
+
+    private void begin(Int2ObjectOpenHashMap<IntArrayList> trigrams, char[] filter, int limit) {
+        Arrays.fill(hits, 0);
+
+        for (int i = 0; i + 2 < filter.length; i++) {
+            IntArrayList postings = trigrams.get(trigram(filter, i));
+            if (postings == null) continue;
+
+            for (int j = 0; j < postings.size(); j++) hits[postings.getInt(j)]++;
+        }
+
+        // Candidates sharing the most trigrams usually score best and tighten the bound for everything after them
+        int count = 0;
+        for (int i = 0; i < entries.size(); i++) if (hits[i] > 0) order[count++] = i;
+
+        sortByHits(count);
+        for (int i = 0; i < entries.size(); i++) if (hits[i] == 0) order[count++] = i;
+
+        if (results.length < limit) {
+            results = new Module[limit];
+            resultScores = new int[limit];
+        }
+
+        resultCount = 0;
+    }
+
+    private void sortByHits(int count) {
+        // Insertion sort, stable so equally matching modules stay in registration order
+        for (int i = 1; i < count; i++) {
+            int value = order[i];
+            int j = i - 1;
+
+            while (j >= 0 && hits[order[j]] < hits[value]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+
+            order[j + 1] = value;
+        }
+    }
+
+    private int getBound(int limit) {
+        return resultCount < limit ? Integer.MAX_VALUE : resultScores[resultCount - 1];
+    }
+
+    private void offer(Module module, int score, int limit) {
+        if (score == Integer.MAX_VALUE) return;
+
+        // Results are ordered by score and then by name like the previous sorted map was
+        int i = resultCount;
+        while (i > 0 && (resultScores[i - 1] > score || (resultScores[i - 1] == score && results[i - 1].compareTo(module) > 0))) i--;
+
+        if (i >= limit) return;
+
+        int end = Math.min(resultCount, limit - 1);
+        System.arraycopy(results, i, results, i + 1, end - i);
+        System.arraycopy(resultScores, i, resultScores, i + 1, end - i);
+
+        results[i] = module;
+        resultScores[i] = score;
+        resultCount = end + 1;
+    }
+
+    private List<Module> end() {
+        List<Module> list = new ArrayList<>(resultCount);
+        for (int i = 0; i < resultCount; i++) list.add(results[i]);
+
+        Arrays.fill(results, 0, resultCount, null);
+        return list;
+    }
+
+    // Scoring
+
+    /**
+     * Levenshtein distance from {@code from} to {@code to} using two reused rows.
+     *
+     * @return the distance or {@link Integer#MAX_VALUE} if it is bigger than {@code bound}
+     */
+    private int distance(char[] from, char[] to, int bound) {
+        int fromLength = from.length;
+        int toLength = to.length;
+
+        if (fromLength == 0) return check(toLength * INS_COST, bound);
+        if (toLength == 0) return check(fromLength * DEL_COST, bound);
+
+        if (previousRow.length <= toLength) {
+            previousRow = new int[toLength + 1];
+            currentRow = new int[toLength + 1];
+        }
+
+        int[] previous = previousRow;
+        int[] current = currentRow;
+
+        for (int j = 0; j <= toLength; j++) previous[j] = j * INS_COST;
+
+        for (int i = 1; i <= fromLength; i++) {
+            current[0] = i * DEL_COST;
+            int rowMin = current[0];
+            char c = from[i - 1];
+
+            for (int j = 1; j <= toLength; j++) {
+                int sCost = previous[j - 1] + (c == to[j - 1] ? 0 : SUB_COST);
+                int dCost = previous[j] + DEL_COST;
+                int iCost = current[j - 1] + INS_COST;
+
+                int cost = Math.min(Math.min(dCost, iCost), sCost);
+                current[j] = cost;
+                if (cost < rowMin) rowMin = cost;
+            }
+
+            // The minimum of a row never decreases in the following rows
+            if (rowMin > bound) return Integer.MAX_VALUE;
+
+            int[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+
+        return check(previous[toLength], bound);
+    }
+
+    private static int check(int distance, int bound) {
+        return distance > bound ? Integer.MAX_VALUE : distance;
+    }
+
+    // Utils
+
+    private static void addTrigrams(Int2ObjectOpenHashMap<IntArrayList> trigrams, char[] text, int index) {
+        for (int i = 0; i + 2 < text.length; i++) {
+            IntArrayList postings = trigrams.computeIfAbsent(trigram(text, i), k -> new IntArrayList(2));
+            if (postings.isEmpty() || postings.getInt(postings.size() - 1) != index) postings.add(index);
+        }
+    }
+
+    private static int trigram(char[] text, int i) {
+        return (text[i] * 31 + text[i + 1]) * 31 + text[i + 2];
+    }
+
+    private static char[] lower(String text) {
+        return text.toLowerCase(Locale.ROOT).toCharArray();
+    }
+
+    private record Entry(Module module, char[] title, char[][] aliases, char[][] settings) {}
+}
@@ -6,11 +6,14 @@
 package meteordevelopment.meteorclient.systems.modules;
 
 import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.game.GameLeftEvent;
 import meteordevelopment.meteorclient.events.game.OpenScreenEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.events.meteor.ActiveModulesChangedEvent;
 import meteordevelopment.meteorclient.events.meteor.KeyEvent;
 import meteordevelopment.meteorclient.events.meteor.ModuleBindChangedEvent;
@@ -30,9 +33,9 @@ import meteordevelopment.meteorclient.systems.modules.render.marker.Marker;
 import meteordevelopment.meteorclient.systems.modules.world.Ambience;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
-import meteordevelopment.meteorclient.utils.misc.ValueComparableMap;
 import meteordevelopment.meteorclient.utils.misc.input.Input;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
+import meteordevelopment.meteorclient.utils.misc.input.KeybindIndex;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.nbt.NbtCompound;
@@ -43,6 +46,7 @@ import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.SimpleRegistry;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
 import net.minecraft.util.math.random.Random;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -65,8 +69,12 @@ public class Modules extends System<Modules> {
     private final List<Module> modules = new ArrayList<>();
     private final Map<Class<? extends Module>, Module> moduleInstances = new Reference2ReferenceOpenHashMap<>();
     private final Map<Category, List<Module>> groups = new Reference2ReferenceOpenHashMap<>();
+    private final KeybindIndex<Module> keybinds = new KeybindIndex<>(module -> module.keybind);
+    private final ModuleSearchIndex searchIndex = new ModuleSearchIndex();
+    private boolean searchIndexDirty = true;
 
     private final List<Module> active = new ArrayList<>();
+    private final Reference2LongMap<Module> pendingRelease = new Reference2LongOpenHashMap<>();
     private Module moduleToBind;
     private boolean awaitingKeyRelease = false;
 
@@ -88,14 +96,14 @@ public class Modules extends System<Modules> {
     }
 
     @Override
-    public void load(File folder) {
+    public void load(File folder, NbtCompound tag) {
         for (Module module : modules) {
             for (SettingGroup group : module.settings) {
                 for (Setting<?> setting : group) setting.reset();
             }
         }
 
-        super.load(folder);
+        super.load(folder, tag);
     }
 
     public void sortModules() {
@@ -180,46 +188,47 @@ public class Modules extends System<Modules> {
         }
     }
 
+    public List<Module> searchTitles(String text, int limit) {
+        return getSearchIndex().searchTitles(text, Config.get().moduleAliases.get(), limit);
+    }
+
+    /** @deprecated Use {@link #searchTitles(String, int)}, which only scores as many modules as it returns */
+    @Deprecated
     public Set<Module> searchTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            if (!module.isEnabled()) { continue; }
-            int score = Utils.searchLevenshteinDefault(module.title, text, false);
-            if (Config.get().moduleAliases.get()) {
-                for (String alias : module.aliases) {
-                    int aliasScore = Utils.searchLevenshteinDefault(alias, text, false);
-                    if (aliasScore < score) score = aliasScore;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + score);
-        }
+        return new LinkedHashSet<>(searchTitles(text, Math.max(modules.size(), 1)));
+    }
 
-        return modules.keySet();
+    public List<Module> searchSettingTitles(String text, int limit) {
+        return getSearchIndex().searchSettingTitles(text, limit);
     }
 
+    /** @deprecated Use {@link #searchSettingTitles(String, int)}, which only scores as many modules as it returns */
+    @Deprecated
     public Set<Module> searchSettingTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            if (!module.isEnabled()) { continue; }
-            int lowest = Integer.MAX_VALUE;
-            for (SettingGroup sg : module.settings) {
-                for (Setting<?> setting : sg) {
-                    int score = Utils.searchLevenshteinDefault(setting.title, text, false);
-                    if (score < lowest) lowest = score;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + lowest);
+        return new LinkedHashSet<>(searchSettingTitles(text, Math.max(modules.size(), 1)));
+    }
+
+    /** Rebuilds the search index before the next search, called when settings are added to a module. */
+    public void invalidateSearchIndex() {
+        searchIndexDirty = true;
+    }
+
+    private ModuleSearchIndex getSearchIndex() {
+        if (searchIndexDirty) {
+            searchIndex.build(moduleInstances.values());
+            searchIndexDirty = false;
         }
 
-        return modules.keySet();
+        return searchIndex;
     }
 
     void addActive(Module module) {
         synchronized (active) {
+            pendingRelease.removeLong(module);
+
             if (!active.contains(module)) {
                 active.add(module);
+                markDirty();
                 MeteorClient.EVENT_BUS.post(ActiveModulesChangedEvent.get());
             }
         }
@@ -228,11 +237,49 @@ public class Modules extends System<Modules> {
     void removeActive(Module module) {
         synchronized (active) {
             if (active.remove(module)) {
+                if (module.isAllocated()) pendingRelease.put(module, Util.getMeasuringTimeMs() + getReleaseDelay());
+                markDirty();
                 MeteorClient.EVENT_BUS.post(ActiveModulesChangedEvent.get());
             }
         }
     }
 
+    private static long getReleaseDelay() {
+        Config config = Config.get();
+        return config == null ? 0 : config.moduleReleaseDelay.get() * 1000L;
+    }
+
+    @EventHandler
+    private void onTick(TickEvent.Post event) {
+        if (pendingRelease.isEmpty()) return;
+
+        long time = Util.getMeasuringTimeMs();
+        List<Module> release = new ArrayList<>();
+
+        synchronized (active) {
+            pendingRelease.reference2LongEntrySet().removeIf(entry -> {
+                if (time < entry.getLongValue()) return false;
+
+                release.add(entry.getKey());
+                return true;
+            });
+        }
+
+        for (Module module : release) module.release();
+    }
+
+    /** @return allocated modules sorted by the memory they retain, largest first */
+    public List<Module> getAllocated() {
+        List<Module> allocated = new ArrayList<>();
+
+        for (Module module : modules) {
+            if (module.isAllocated()) allocated.add(module);
+        }
+
+        allocated.sort(Comparator.comparingLong(Module::getRetainedMemory).reversed());
+        return allocated;
+    }
+
     // Binding
 
     public void setModuleToBind(Module moduleToBind) {
@@ -283,6 +330,7 @@ public class Modules extends System<Modules> {
 
         MeteorClient.EVENT_BUS.post(ModuleBindChangedEvent.get(moduleToBind));
         moduleToBind = null;
+        markDirty();
 
         return true;
     }
@@ -302,7 +350,11 @@ public class Modules extends System<Modules> {
     private void onAction(boolean isKey, int value, int modifiers, boolean isPress) {
         if (mc.currentScreen != null || Input.isKeyPressed(GLFW.GLFW_KEY_F3)) return;
 
-        for (Module module : moduleInstances.values()) {
+        List<Module> bound = keybinds.get(isKey, value);
+
+        for (int i = 0; i < bound.size(); i++) {
+            Module module = bound.get(i);
+
             if (module.keybind.matches(isKey, value, modifiers) && (isPress || (module.toggleOnBindRelease && module.isActive()))) {
                 module.toggle();
                 module.sendToggledMsg();
@@ -405,12 +457,17 @@ public class Modules extends System<Modules> {
             return false;
         })) {
             getGroup(removedModule.get().category).remove(removedModule.get());
+            keybinds.remove(removedModule.get());
         }
 
         // Add the module
-        moduleInstances.put(module.getClass(), module);
+        Module previous = moduleInstances.put(module.getClass(), module);
+        if (previous != null) keybinds.remove(previous);
+
         modules.add(module);
         getGroup(module.category).add(module);
+        keybinds.add(module);
+        searchIndexDirty = true;
 
         // Register color settings for the module
         module.settings.registerColorSettings(module);
@@ -445,6 +502,7 @@ public class Modules extends System<Modules> {
         add(new Breadcrumbs());
         add(new BreakIndicators());
         add(new CameraTweaks());
+        add(new ESP());
         add(new Freecam());
         add(new FreeLook());
         add(new Fullbright());
@@ -11,6 +11,7 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.player.InvUtils;
+import meteordevelopment.meteorclient.utils.player.InventoryIndex;
 import meteordevelopment.meteorclient.utils.player.SlotUtils;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.item.Item;
@@ -142,7 +143,11 @@ public class AutoReplenish extends Module {
         int slot = -1;
         int count = 0;
 
-        for (int i = mc.player.getInventory().size() - 2; i >= (searchHotbar.get() ? 0 : 9); i--) {
+        // Only visit the slots holding the item, from the back of the inventory excluding the offhand
+        long slots = InventoryIndex.getSlots(itemStack.getItem()) & InventoryIndex.slotRange(searchHotbar.get() ? 0 : 9, mc.player.getInventory().size() - 2);
+
+        for (; slots != 0; slots &= ~Long.highestOneBit(slots)) {
+            int i = 63 - Long.numberOfLeadingZeros(slots);
             ItemStack stack = mc.player.getInventory().getStack(i);
 
             if (i != excludedSlot && stack.getItem() == itemStack.getItem() && ItemStack.areItemsAndComponentsEqual(itemStack, stack)) {
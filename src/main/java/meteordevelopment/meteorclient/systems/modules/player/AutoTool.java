@@ -14,6 +14,8 @@ import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.render.Xray;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.player.InvUtils;
+import meteordevelopment.meteorclient.utils.player.InventoryIndex;
+import meteordevelopment.meteorclient.utils.player.SlotUtils;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
@@ -148,7 +150,11 @@ public class AutoTool extends Module {
         double bestScore = -1;
         bestSlot = -1;
 
-        for (int i = 0; i < 9; i++) {
+        // Empty slots can't hold a tool
+        long slots = ~InventoryIndex.getSlots(Items.AIR) & InventoryIndex.slotRange(SlotUtils.HOTBAR_START, SlotUtils.HOTBAR_END);
+
+        for (; slots != 0; slots &= slots - 1) {
+            int i = Long.numberOfTrailingZeros(slots);
             ItemStack itemStack = mc.player.getInventory().getStack(i);
 
             if (listMode.get() == ListMode.Whitelist && !whitelist.get().contains(itemStack.getItem())) continue;
@@ -14,21 +14,21 @@ import meteordevelopment.meteorclient.renderer.Framebuffer;
 import meteordevelopment.meteorclient.renderer.GL;
 import meteordevelopment.meteorclient.renderer.PostProcessRenderer;
 import meteordevelopment.meteorclient.renderer.Shader;
-import meteordevelopment.meteorclient.settings.BoolSetting;
-import meteordevelopment.meteorclient.settings.IntSetting;
-import meteordevelopment.meteorclient.settings.Setting;
-import meteordevelopment.meteorclient.settings.SettingGroup;
+import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.orbit.listeners.ConsumerListener;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.Camera;
 import net.minecraft.client.gui.screen.ChatScreen;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.util.math.Vec3d;
 
 public class Blur extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgScreens = settings.createGroup("Screens");
+    private final SettingGroup sgPerformance = settings.createGroup("Performance");
 
     // Strength-Levels from https://github.com/jonaburg/picom/blob/a8445684fe18946604848efb73ace9457b29bf80/src/backend/backend_common.c#L372
     private final IntDoubleImmutablePair[] strengths = new IntDoubleImmutablePair[]{
@@ -103,25 +103,68 @@ public class Blur extends Module {
         .build()
     );
 
-    private Shader shaderDown, shaderUp, shaderPassthrough;
+    // Performance
+
+    private final Setting<Boolean> cache = sgPerformance.add(new BoolSetting.Builder()
+        .name("cache")
+        .description("Reuses the blurred background while the game is paused and the camera, resolution and strength don't change.")
+        .defaultValue(true)
+        .build()
+    );
+
+    private final Setting<Integer> updateInterval = sgPerformance.add(new IntSetting.Builder()
+        .name("update-interval")
+        .description("Only blurs the world every this many frames and reuses the previous result in between.")
+        .defaultValue(1)
+        .min(1)
+        .sliderRange(1, 10)
+        .build()
+    );
+
+    private final Setting<Double> temporalBlend = sgPerformance.add(new DoubleSetting.Builder()
+        .name("temporal-blend")
+        .description("How much of the previous blurred frame is kept when a new one is blended in, smooths out a higher update interval.")
+        .defaultValue(0.5)
+        .range(0, 0.9)
+        .sliderRange(0, 0.9)
+        .visible(() -> updateInterval.get() > 1)
+        .build()
+    );
+
+    private final Setting<Boolean> separable = sgPerformance.add(new BoolSetting.Builder()
+        .name("separable")
+        .description("Blurs a downscaled copy with a separable gaussian kernel instead of the dual kawase filter, needs less texture samples.")
+        .defaultValue(false)
+        .build()
+    );
+
+    private Shader shaderDown, shaderUp, shaderPassthrough, shaderGaussian, shaderBlend;
     private final Framebuffer[] fbos = new Framebuffer[6];
+    private Framebuffer gaussianFbo, historyFbo;
 
     private boolean enabled;
     private long fadeEndAt;
 
+    // Cached result
+    private boolean cacheValid;
+    private int cachedLevel, framesSinceUpdate;
+    private double cachedX, cachedY, cachedZ;
+    private float cachedYaw, cachedPitch;
+
     public Blur() {
         super(Categories.Render, "blur", "Blurs background when in GUI screens.");
 
         // The listeners need to run even when the module is not enabled
         MeteorClient.EVENT_BUS.subscribe(new ConsumerListener<>(ResolutionChangedEvent.class, event -> {
-            // Resize all fbos
-            for (int i = 0; i < fbos.length; i++) {
-                if (fbos[i] != null) {
-                    fbos[i].resize();
-                } else {
-                    fbos[i] = new Framebuffer(1 / Math.pow(2, i));
-                }
+            // Resize all fbos, they are only created once the blur is first rendered
+            for (Framebuffer fbo : fbos) {
+                if (fbo != null) fbo.resize();
             }
+
+            if (gaussianFbo != null) gaussianFbo.resize();
+            if (historyFbo != null) historyFbo.resize();
+
+            cacheValid = false;
         }));
 
         MeteorClient.EVENT_BUS.subscribe(new ConsumerListener<>(RenderAfterWorldEvent.class, event -> onRenderAfterWorld()));
@@ -139,6 +182,9 @@ public class Blur extends Module {
                 if (time >= fadeEndAt) {
                     enabled = false;
                     fadeEndAt = -1;
+
+                    // The module was released while fading out
+                    if (!isAllocated()) destroyResources();
                 }
             }
         } else {
@@ -148,18 +194,24 @@ public class Blur extends Module {
             }
         }
 
-        if (!enabled) return;
+        if (!enabled) {
+            cacheValid = false;
+            return;
+        }
 
         // Initialize shader and framebuffer if running for the first time
         if (shaderDown == null) {
             shaderDown = new Shader("blur.vert", "blur_down.frag");
             shaderUp = new Shader("blur.vert", "blur_up.frag");
             shaderPassthrough = new Shader("passthrough.vert", "passthrough.frag");
+            shaderGaussian = new Shader("blur.vert", "blur_gaussian.frag");
+            shaderBlend = new Shader("passthrough.vert", "blur_blend.frag");
             for (int i = 0; i < fbos.length; i++) {
                 if (fbos[i] == null) {
                     fbos[i] = new Framebuffer(1 / Math.pow(2, i));
                 }
             }
+            historyFbo = new Framebuffer(1);
         }
 
         // Update progress
@@ -173,13 +225,108 @@ public class Blur extends Module {
         }
 
         // Update strength
-        IntDoubleImmutablePair strength = strengths[(int) ((this.strength.get() - 1) * progress)];
+        int level = (int) ((this.strength.get() - 1) * progress);
+        IntDoubleImmutablePair strength = strengths[level];
         int iterations = strength.leftInt();
         double offset = strength.rightDouble();
 
-        // Render the blur
         PostProcessRenderer.beginRender();
 
+        // Render the blur
+        if (needsUpdate(level)) {
+            if (separable.get()) blurSeparable(iterations, offset);
+            else blurDualKawase(iterations, offset);
+
+            // Blend into the previous result, the first frame has nothing to blend with
+            boolean blend = cacheValid && updateInterval.get() > 1 && temporalBlend.get() > 0;
+
+            historyFbo.bind();
+            historyFbo.setViewport();
+            shaderBlend.bind();
+            GL.bindTexture(fbos[0].texture);
+            shaderBlend.set("uTexture", 0);
+            shaderBlend.set("uAlpha", blend ? 1 - temporalBlend.get() : 1);
+            PostProcessRenderer.render();
+
+            cacheValid = true;
+        }
+
+        // Render output
+        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
+        shaderPassthrough.bind();
+        GL.bindTexture(historyFbo.texture);
+        shaderPassthrough.set("uTexture", 0);
+        PostProcessRenderer.render();
+
+        PostProcessRenderer.endRender();
+    }
+
+    @Override
+    protected void onRelease() {
+        // Still fading out, the resources are destroyed once the fade finished
+        if (!enabled) destroyResources();
+    }
+
+    private void destroyResources() {
+        if (shaderDown == null) return;
+
+        shaderDown.destroy();
+        shaderUp.destroy();
+        shaderPassthrough.destroy();
+        shaderGaussian.destroy();
+        shaderBlend.destroy();
+        shaderDown = shaderUp = shaderPassthrough = shaderGaussian = shaderBlend = null;
+
+        for (int i = 0; i < fbos.length; i++) {
+            if (fbos[i] != null) fbos[i].destroy();
+            fbos[i] = null;
+        }
+
+        if (gaussianFbo != null) gaussianFbo.destroy();
+        historyFbo.destroy();
+        gaussianFbo = historyFbo = null;
+
+        cacheValid = false;
+    }
+
+    @Override
+    public long getRetainedMemory() {
+        if (shaderDown == null) return 0;
+
+        long memory = historyFbo.getMemoryUsage();
+        for (Framebuffer fbo : fbos) memory += fbo.getMemoryUsage();
+        if (gaussianFbo != null) memory += gaussianFbo.getMemoryUsage();
+
+        return memory;
+    }
+
+    /** Checks whether the last blurred frame can't be reused and remembers the state the new one is created for. */
+    private boolean needsUpdate(int level) {
+        Camera camera = mc.gameRenderer.getCamera();
+        Vec3d pos = camera.getPos();
+
+        boolean unchanged = cacheValid && level == cachedLevel
+            && pos.x == cachedX && pos.y == cachedY && pos.z == cachedZ
+            && camera.getYaw() == cachedYaw && camera.getPitch() == cachedPitch;
+
+        // Nothing in the world moves while the game is paused
+        if (unchanged && cache.get() && mc.isPaused()) return false;
+
+        // Lower update rate, strength changes while fading are always shown
+        if (cacheValid && level == cachedLevel && ++framesSinceUpdate < updateInterval.get()) return false;
+
+        cachedLevel = level;
+        cachedX = pos.x;
+        cachedY = pos.y;
+        cachedZ = pos.z;
+        cachedYaw = camera.getYaw();
+        cachedPitch = camera.getPitch();
+        framesSinceUpdate = 0;
+
+        return true;
+    }
+
+    private void blurDualKawase(int iterations, double offset) {
         // Initial downsample
         renderToFbo(fbos[0], MinecraftClient.getInstance().getFramebuffer().getColorAttachment(), shaderDown, offset);
 
@@ -192,15 +339,32 @@ public class Blur extends Module {
         for (int i = iterations; i >= 1; i--) {
             renderToFbo(fbos[i - 1], fbos[i].texture, shaderUp, offset);
         }
+    }
 
-        // Render output
-        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
-        shaderPassthrough.bind();
-        GL.bindTexture(fbos[0].texture);
-        shaderPassthrough.set("uTexture", 0);
-        PostProcessRenderer.render();
+    private void blurSeparable(int iterations, double offset) {
+        // Downsample with linear filtering only, the gaussian passes do the blurring at the smallest size
+        copyToFbo(fbos[0], MinecraftClient.getInstance().getFramebuffer().getColorAttachment());
 
-        PostProcessRenderer.endRender();
+        for (int i = 0; i < iterations; i++) {
+            copyToFbo(fbos[i + 1], fbos[i].texture);
+        }
+
+        // Horizontal and vertical pass
+        Framebuffer fbo = fbos[iterations];
+
+        if (gaussianFbo == null) gaussianFbo = new Framebuffer(fbo.sizeMulti);
+        else if (gaussianFbo.sizeMulti != fbo.sizeMulti) {
+            gaussianFbo.sizeMulti = fbo.sizeMulti;
+            gaussianFbo.resize();
+        }
+
+        renderGaussian(gaussianFbo, fbo.texture, 1.0 / fbo.width, 0, offset);
+        renderGaussian(fbo, gaussianFbo.texture, 0, 1.0 / fbo.height, offset);
+
+        // Upsample
+        for (int i = iterations; i >= 1; i--) {
+            copyToFbo(fbos[i - 1], fbos[i].texture);
+        }
     }
 
     /**
@@ -221,6 +385,26 @@ public class Blur extends Module {
         PostProcessRenderer.render();
     }
 
+    private void copyToFbo(Framebuffer targetFbo, int sourceText) {
+        targetFbo.bind();
+        targetFbo.setViewport();
+        shaderPassthrough.bind();
+        GL.bindTexture(sourceText);
+        shaderPassthrough.set("uTexture", 0);
+        PostProcessRenderer.render();
+    }
+
+    private void renderGaussian(Framebuffer targetFbo, int sourceText, double directionX, double directionY, double offset) {
+        targetFbo.bind();
+        targetFbo.setViewport();
+        shaderGaussian.bind();
+        GL.bindTexture(sourceText);
+        shaderGaussian.set("uTexture", 0);
+        shaderGaussian.set("uDirection", directionX, directionY);
+        shaderGaussian.set("uOffset", offset);
+        PostProcessRenderer.render();
+    }
+
     private boolean shouldRender() {
         if (!isActive()) return false;
         Screen screen = mc.currentScreen;
@@ -0,0 +1,327 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.ResolutionChangedEvent;
+import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.renderer.ShapeMode;
+import meteordevelopment.meteorclient.settings.*;
+import meteordevelopment.meteorclient.systems.modules.Categories;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.utils.player.PlayerUtils;
+import meteordevelopment.meteorclient.utils.render.WireframeEntityRenderer;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.render.postprocess.EntityOutlineShader;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.List;
+import java.util.Set;
+
+public class ESP extends Module {
+    private final SettingGroup sgGeneral = settings.getDefaultGroup();
+    private final SettingGroup sgOutline = settings.createGroup("Outline");
+    private final SettingGroup sgShape = settings.createGroup("Wireframe and Box");
+    private final SettingGroup sgColors = settings.createGroup("Colors");
+
+    public enum Mode {
+        Outline,
+        Wireframe,
+        Box
+    }
+
+    // General
+
+    private final Setting<Mode> mode = sgGeneral.add(new EnumSetting.Builder<Mode>()
+        .name("mode")
+        .description("How the entities are rendered.")
+        .defaultValue(Mode.Outline)
+        .build()
+    );
+
+    private final Setting<Set<EntityType<?>>> entities = sgGeneral.add(new EntityTypeListSetting.Builder()
+        .name("entities")
+        .description("Select specific entities.")
+        .defaultValue(EntityType.PLAYER)
+        .build()
+    );
+
+    private final Setting<Integer> maxDist = sgGeneral.add(new IntSetting.Builder()
+        .name("max-distance")
+        .description("Maximum distance from the camera for entities to be rendered.")
+        .defaultValue(128)
+        .min(1)
+        .sliderRange(16, 256)
+        .build()
+    );
+
+    private final Setting<Boolean> ignoreSelf = sgGeneral.add(new BoolSetting.Builder()
+        .name("ignore-self")
+        .description("Doesn't render yourself when in third person or freecam.")
+        .defaultValue(true)
+        .build()
+    );
+
+    private final Setting<Boolean> showInvis = sgGeneral.add(new BoolSetting.Builder()
+        .name("show-invisible")
+        .description("Shows invisible entities.")
+        .defaultValue(true)
+        .build()
+    );
+
+    // Outline
+
+    public final Setting<ShapeMode> outlineShapeMode = sgOutline.add(new EnumSetting.Builder<ShapeMode>()
+        .name("shape-mode")
+        .description("Whether to render the outline, the filled entity or both.")
+        .defaultValue(ShapeMode.Lines)
+        .visible(() -> mode.get() == Mode.Outline)
+        .build()
+    );
+
+    public final Setting<Integer> outlineWidth = sgOutline.add(new IntSetting.Builder()
+        .name("width")
+        .description("The width of the outline in pixels.")
+        .defaultValue(2)
+        .range(1, 10)
+        .sliderRange(1, 5)
+        .visible(() -> mode.get() == Mode.Outline && outlineShapeMode.get().lines())
+        .build()
+    );
+
+    public final Setting<Double> glowMultiplier = sgOutline.add(new DoubleSetting.Builder()
+        .name("glow-multiplier")
+        .description("How strong the outline fades out, higher values give a harder edge.")
+        .defaultValue(3.5)
+        .min(0)
+        .sliderMax(10)
+        .visible(() -> mode.get() == Mode.Outline && outlineShapeMode.get().lines())
+        .build()
+    );
+
+    public final Setting<Double> fillOpacity = sgOutline.add(new DoubleSetting.Builder()
+        .name("fill-opacity")
+        .description("The opacity of the filled entity.")
+        .defaultValue(0.3)
+        .range(0, 1)
+        .sliderRange(0, 1)
+        .visible(() -> mode.get() == Mode.Outline && outlineShapeMode.get().sides())
+        .build()
+    );
+
+    // Wireframe and Box
+
+    private final Setting<ShapeMode> shapeMode = sgShape.add(new EnumSetting.Builder<ShapeMode>()
+        .name("shape-mode")
+        .description("How the shapes are rendered.")
+        .defaultValue(ShapeMode.Lines)
+        .visible(() -> mode.get() != Mode.Outline)
+        .build()
+    );
+
+    private final Setting<Double> sideOpacity = sgShape.add(new DoubleSetting.Builder()
+        .name("side-opacity")
+        .description("The opacity of the sides relative to the entity color.")
+        .defaultValue(0.25)
+        .range(0, 1)
+        .sliderRange(0, 1)
+        .visible(() -> mode.get() != Mode.Outline && shapeMode.get().sides())
+        .build()
+    );
+
+    // Colors
+
+    private final Setting<SettingColor> playersColor = sgColors.add(new ColorSetting.Builder()
+        .name("players-color")
+        .description("The player's color.")
+        .defaultValue(new SettingColor(255, 255, 255))
+        .build()
+    );
+
+    private final Setting<SettingColor> animalsColor = sgColors.add(new ColorSetting.Builder()
+        .name("animals-color")
+        .description("The animal's color.")
+        .defaultValue(new SettingColor(25, 255, 25))
+        .build()
+    );
+
+    private final Setting<SettingColor> waterAnimalsColor = sgColors.add(new ColorSetting.Builder()
+        .name("water-animals-color")
+        .description("The water animal's color.")
+        .defaultValue(new SettingColor(25, 25, 255))
+        .build()
+    );
+
+    private final Setting<SettingColor> monstersColor = sgColors.add(new ColorSetting.Builder()
+        .name("monsters-color")
+        .description("The monster's color.")
+        .defaultValue(new SettingColor(255, 25, 25))
+        .build()
+    );
+
+    private final Setting<SettingColor> ambientColor = sgColors.add(new ColorSetting.Builder()
+        .name("ambient-color")
+        .description("The ambient's color.")
+        .defaultValue(new SettingColor(25, 25, 25))
+        .build()
+    );
+
+    private final Setting<SettingColor> miscColor = sgColors.add(new ColorSetting.Builder()
+        .name("misc-color")
+        .description("The misc color.")
+        .defaultValue(new SettingColor(175, 175, 175))
+        .build()
+    );
+
+    // Entities the world renderer drew this frame, these already passed the frustum check
+    private final List<Entity> visible = new ObjectArrayList<>();
+
+    private final Color lineColor = new Color();
+    private final Color sideColor = new Color();
+
+    private EntityOutlineShader outlineShader;
+    private int count;
+
+    public ESP() {
+        super(Categories.Render, "esp", "Renders entities through walls.");
+
+        // The listener needs to run even when the module is not enabled
+        MeteorClient.EVENT_BUS.subscribe(new ConsumerListener<>(ResolutionChangedEvent.class, event -> {
+            if (outlineShader != null) outlineShader.onResized(mc.getWindow().getFramebufferWidth(), mc.getWindow().getFramebufferHeight());
+        }));
+    }
+
+    @Override
+    public void onDeactivate() {
+        visible.clear();
+    }
+
+    @Override
+    protected void onRelease() {
+        if (outlineShader != null) {
+            outlineShader.destroy();
+            outlineShader = null;
+        }
+    }
+
+    @Override
+    public long getRetainedMemory() {
+        return outlineShader == null ? 0 : outlineShader.getMemoryUsage();
+    }
+
+    /** Called before the world is rendered, clears the shared outline framebuffer. */
+    public void beginFrame() {
+        if (!isActive()) return;
+
+        visible.clear();
+
+        if (mode.get() == Mode.Outline) {
+            if (outlineShader == null) outlineShader = new EntityOutlineShader(this);
+            outlineShader.beginRender();
+        }
+    }
+
+    /**
+     * Called for every entity the world renderer draws. In outline mode the entity is drawn into the outline
+     * framebuffer by the same model pass which draws it into the world, so no model is rendered twice.
+     */
+    public VertexConsumerProvider getVertexConsumers(Entity entity, VertexConsumerProvider vertexConsumers) {
+        if (!isActive() || shouldSkip(entity)) return vertexConsumers;
+
+        visible.add(entity);
+        if (mode.get() != Mode.Outline || outlineShader == null) return vertexConsumers;
+
+        // Glowing entities are already drawn through the vanilla outline provider
+        if (vertexConsumers != mc.getBufferBuilders().getEntityVertexConsumers()) return vertexConsumers;
+
+        Color color = getColor(entity);
+        outlineShader.vertexConsumerProvider.setColor(color.r, color.g, color.b, color.a);
+
+        return outlineShader.vertexConsumerProvider;
+    }
+
+    @EventHandler
+    private void onRender3D(Render3DEvent event) {
+        count = visible.size();
+
+        if (mc.options.hudHidden) {
+            visible.clear();
+            return;
+        }
+
+        switch (mode.get()) {
+            case Outline -> {
+                // One post process pass for all entities
+                if (outlineShader != null && !visible.isEmpty()) outlineShader.endRender();
+            }
+            case Wireframe -> {
+                for (Entity entity : visible) {
+                    setShapeColors(entity);
+                    WireframeEntityRenderer.render(event, entity, 1, sideColor, lineColor, shapeMode.get());
+                }
+            }
+            case Box -> {
+                for (Entity entity : visible) {
+                    setShapeColors(entity);
+
+                    double x = MathHelper.lerp(event.tickDelta, entity.lastRenderX, entity.getX()) - entity.getX();
+                    double y = MathHelper.lerp(event.tickDelta, entity.lastRenderY, entity.getY()) - entity.getY();
+                    double z = MathHelper.lerp(event.tickDelta, entity.lastRenderZ, entity.getZ()) - entity.getZ();
+
+                    Box box = entity.getBoundingBox();
+                    event.renderer.box(x + box.minX, y + box.minY, z + box.minZ, x + box.maxX, y + box.maxY, z + box.maxZ, sideColor, lineColor, shapeMode.get(), 0);
+                }
+            }
+        }
+
+        visible.clear();
+    }
+
+    /** Cheapest checks first, the distance check rejects most entities on busy servers. */
+    public boolean shouldSkip(Entity entity) {
+        if (!PlayerUtils.isWithinCamera(entity, maxDist.get())) return true;
+        if (!entities.get().contains(entity.getType())) return true;
+        if (ignoreSelf.get() && entity == mc.player) return true;
+        return !showInvis.get() && entity.isInvisible();
+    }
+
+    public boolean isOutline() {
+        return isActive() && mode.get() == Mode.Outline;
+    }
+
+    private void setShapeColors(Entity entity) {
+        Color color = getColor(entity);
+
+        lineColor.set(color);
+        sideColor.set(color).a((int) (color.a * sideOpacity.get()));
+    }
+
+    private Color getColor(Entity entity) {
+        if (entity instanceof PlayerEntity player) return PlayerUtils.getPlayerColor(player, playersColor.get());
+
+        return switch (entity.getType().getSpawnGroup()) {
+            case CREATURE -> animalsColor.get();
+            case WATER_AMBIENT, WATER_CREATURE, UNDERGROUND_WATER_CREATURE, AXOLOTLS -> waterAnimalsColor.get();
+            case MONSTER -> monstersColor.get();
+            case AMBIENT -> ambientColor.get();
+            default -> miscColor.get();
+        };
+    }
+
+    @Override
+    public String getInfoString() {
+        return Integer.toString(count);
+    }
+}
@@ -23,6 +23,7 @@ import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.input.Input;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
+import meteordevelopment.meteorclient.utils.network.PacketListeners;
 import meteordevelopment.meteorclient.utils.player.Rotations;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
@@ -37,6 +38,8 @@ import net.minecraft.util.math.Vec3d;
 import org.joml.Vector3d;
 import org.lwjgl.glfw.GLFW;
 
+import java.util.function.Consumer;
+
 public class Freecam extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
@@ -121,6 +124,8 @@ public class Freecam extends Module {
 
     private boolean forward, backward, right, left, up, down;
 
+    private final Consumer<PacketEvent.Receive> deathMessageListener = this::onDeathMessage;
+
     public Freecam() {
         super(Categories.Render, "freecam", "Allows the camera to move away from the player.");
     }
@@ -159,10 +164,14 @@ public class Freecam extends Module {
 
         unpress();
         if (reloadChunks.get()) mc.worldRenderer.reload();
+
+        PacketListeners.RECEIVE.add(DeathMessageS2CPacket.class, deathMessageListener);
     }
 
     @Override
     public void onDeactivate() {
+        PacketListeners.RECEIVE.remove(DeathMessageS2CPacket.class, deathMessageListener);
+
         if (reloadChunks.get()) mc.worldRenderer.reload();
         mc.options.setPerspective(perspective);
         if (staticView.get()) {
@@ -366,14 +375,13 @@ public class Freecam extends Module {
         toggle();
     }
 
-    @EventHandler
-    private void onPacketReceive(PacketEvent.Receive event)  {
-        if (event.packet instanceof DeathMessageS2CPacket packet) {
-            Entity entity = mc.world.getEntityById(packet.playerId());
-            if (entity == mc.player && toggleOnDeath.get()) {
-                toggle();
-                info("Toggled off because you died.");
-            }
+    private void onDeathMessage(PacketEvent.Receive event) {
+        DeathMessageS2CPacket packet = (DeathMessageS2CPacket) event.packet;
+
+        Entity entity = mc.world.getEntityById(packet.playerId());
+        if (entity == mc.player && toggleOnDeath.get()) {
+            toggle();
+            info("Toggled off because you died.");
         }
     }
 
@@ -5,8 +5,9 @@
 
 package meteordevelopment.meteorclient.systems.modules.render;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
-import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.renderer.DrawMode;
 import meteordevelopment.meteorclient.renderer.Mesh;
 import meteordevelopment.meteorclient.renderer.ShaderMesh;
@@ -22,9 +23,6 @@ import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class LightOverlay extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgColors = settings.createGroup("Colors");
@@ -36,6 +34,7 @@ public class LightOverlay extends Module {
         .description("Horizontal range in blocks.")
         .defaultValue(8)
         .min(0)
+        .onChanged(range -> resubscribe())
         .build()
     );
 
@@ -44,6 +43,7 @@ public class LightOverlay extends Module {
         .description("Vertical range in blocks.")
         .defaultValue(4)
         .min(0)
+        .onChanged(range -> resubscribe())
         .build()
     );
 
@@ -58,6 +58,7 @@ public class LightOverlay extends Module {
         .name("new-mob-spawn-light-level")
         .description("Use the new (1.18+) mob spawn behavior")
         .defaultValue(true)
+        .onChanged(newLevel -> resubscribe())
         .build()
     );
 
@@ -77,40 +78,104 @@ public class LightOverlay extends Module {
         .build()
     );
 
-    private final Pool<Cross> crossPool = new Pool<>(Cross::new);
-    private final List<Cross> crosses = new ArrayList<>();
+    private Pool<Cross> crossPool = new Pool<>(Cross::new);
+    private final Long2ObjectMap<Cross> crosses = new Long2ObjectOpenHashMap<>();
+
+    private Mesh mesh;
 
-    private final Mesh mesh = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+    private BlockIterator.Window window;
+    private int lastColors;
 
     public LightOverlay() {
         super(Categories.Render, "light-overlay", "Shows blocks where mobs can spawn.");
     }
 
-    @EventHandler
-    private void onTick(TickEvent.Pre event) {
-        for (Cross cross : crosses) crossPool.free(cross);
+    @Override
+    protected void onAllocate() {
+        mesh = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Usage.Static, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+    }
+
+    @Override
+    protected void onRelease() {
+        mesh.destroy();
+        mesh = null;
+
         crosses.clear();
+        crossPool = new Pool<>(Cross::new);
+    }
+
+    @Override
+    public long getRetainedMemory() {
+        if (mesh == null) return 0;
+
+        // A cross is an object header, three doubles and a boolean
+        return mesh.getMemoryUsage() + crosses.size() * 48L;
+    }
+
+    @Override
+    public void onActivate() {
+        mesh.invalidate();
 
         int spawnLightLevel = newMobSpawnLightLevel.get() ? 0 : 7;
-        BlockIterator.register(horizontalRange.get(), verticalRange.get(), (blockPos, blockState) -> {
-            switch (BlockUtils.isValidMobSpawn(blockPos, blockState, spawnLightLevel)) {
-                case Potential -> crosses.add(crossPool.get().set(blockPos, true));
-                case Always -> crosses.add((crossPool.get().set(blockPos, false)));
+
+        // Light levels change without block updates so every block is also refreshed once a second
+        window = BlockIterator.subscribe(horizontalRange.get(), verticalRange.get(), 20, (blockPos, blockState) -> switch (BlockUtils.isValidMobSpawn(blockPos, blockState, spawnLightLevel)) {
+            case Never -> 0;
+            case Potential -> 1;
+            case Always -> 2;
+        }, new BlockIterator.DeltaListener() {
+            @Override
+            public void onAdded(BlockPos blockPos, int value) {
+                Cross cross = crosses.get(blockPos.asLong());
+                if (cross == null) crosses.put(blockPos.asLong(), cross = crossPool.get());
+
+                cross.set(blockPos, value == 1);
+                mesh.invalidate();
+            }
+
+            @Override
+            public void onRemoved(BlockPos blockPos) {
+                Cross cross = crosses.remove(blockPos.asLong());
+                if (cross != null) {
+                    crossPool.free(cross);
+                    mesh.invalidate();
+                }
             }
         });
     }
 
+    @Override
+    public void onDeactivate() {
+        BlockIterator.unsubscribe(window);
+        window = null;
+    }
+
+    private void resubscribe() {
+        if (!isActive()) return;
+
+        onDeactivate();
+        onActivate();
+    }
+
     @EventHandler
     private void onRender(Render3DEvent event) {
         if (crosses.isEmpty()) return;
 
-        mesh.depthTest = !seeThroughBlocks.get();
-        mesh.begin();
+        // The crosses only change when the window reports a delta, so the mesh is only rebuilt then or when a color changes
+        int colors = color.get().getPacked() * 31 + potentialColor.get().getPacked();
+        if (colors != lastColors) {
+            lastColors = colors;
+            mesh.invalidate();
+        }
 
-        for (Cross cross : crosses) cross.render();
+        if (!mesh.isValid()) {
+            mesh.begin(mc.player.getBlockX(), mc.player.getBlockY(), mc.player.getBlockZ());
+            for (Cross cross : crosses.values()) cross.render();
+            mesh.end();
+        }
 
-        mesh.end();
-        mesh.render(event.matrices);
+        mesh.depthTest = !seeThroughBlocks.get();
+        event.queue.submit(mesh);
     }
 
     private void line(double x1, double y1, double z1, double x2, double y2, double z2, Color color) {
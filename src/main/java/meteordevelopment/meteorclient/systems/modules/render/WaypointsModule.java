@@ -215,7 +215,7 @@ public class WaypointsModule extends Module {
             WCheckbox visible = table.add(theme.checkbox(waypoint.visible.get())).widget();
             visible.action = () -> {
                 waypoint.visible.set(visible.checked);
-                Waypoints.get().save();
+                Waypoints.get().markDirty();
             };
 
             WButton edit = table.add(theme.button(GuiRenderer.EDIT)).widget();
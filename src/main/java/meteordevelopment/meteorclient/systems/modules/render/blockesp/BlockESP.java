@@ -17,6 +17,7 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.misc.RegistryBitSet;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.color.RainbowColors;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
@@ -27,19 +28,19 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BlockESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
     // General
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("Blocks to search for.")
         .onChanged(blocks1 -> {
@@ -77,13 +78,29 @@ public class BlockESP extends Module {
         .build()
     );
 
+    private final Setting<Boolean> greedyMeshing = sgGeneral.add(new BoolSetting.Builder()
+        .name("greedy-meshing")
+        .description("Merges the faces of connected full blocks into large quads and only draws their outline, uses a lot less vertices.")
+        .defaultValue(true)
+        .build()
+    );
+
     private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
 
     private final Long2ObjectMap<ESPChunk> chunks = new Long2ObjectOpenHashMap<>();
     private final Set<ESPGroup> groups = new ReferenceOpenHashSet<>();
-    private final ExecutorService workerThread = Executors.newSingleThreadExecutor();
+    // Created on first activation and shut down once the module was inactive for a while, only touched under executorLock
+    private final Object executorLock = new Object();
+    private ExecutorService workerThread;
+    private ForkJoinPool searchPool;
+
+    private final Queue<SearchResult> searchedChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mergeQueued = new AtomicBoolean();
+    private volatile int searchGeneration;
 
     private Dimension lastDimension;
+    private int lastColorsHash;
+    private int vertexCount;
 
     public BlockESP() {
         super(Categories.Render, "block-esp", "Renders specified blocks through walls.", "search");
@@ -92,12 +109,57 @@ public class BlockESP extends Module {
     }
 
     @Override
-    public void onActivate() {
+    protected void onAllocate() {
+        synchronized (executorLock) {
+            workerThread = Executors.newSingleThreadExecutor();
+            searchPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        }
+    }
+
+    @Override
+    protected void onRelease() {
+        searchGeneration++;
+
+        synchronized (executorLock) {
+            workerThread.shutdown();
+            searchPool.shutdown();
+
+            workerThread = null;
+            searchPool = null;
+        }
+
+        // A merge queued after the shutdown was dropped and would otherwise block all later ones
+        searchedChunks.clear();
+        mergeQueued.set(false);
+
+        ESPChunk.releaseMesher();
+    }
+
+    /** Runs the task on the worker thread, it is dropped if the module was released in the meantime. */
+    private void submit(Runnable task) {
+        synchronized (executorLock) {
+            if (workerThread != null) workerThread.execute(task);
+        }
+    }
+
+    @Override
+    public long getRetainedMemory() {
+        long memory = 0;
+
         synchronized (chunks) {
-            chunks.clear();
-            groups.clear();
+            for (ESPChunk chunk : chunks.values()) memory += chunk.getMemoryUsage();
         }
 
+        return memory;
+    }
+
+    @Override
+    public void onActivate() {
+        searchGeneration++;
+        searchedChunks.clear();
+
+        clearChunks();
+
         for (Chunk chunk : Utils.chunks()) {
             searchChunk(chunk);
         }
@@ -107,7 +169,16 @@ public class BlockESP extends Module {
 
     @Override
     public void onDeactivate() {
+        searchGeneration++;
+        searchedChunks.clear();
+
+        clearChunks();
+    }
+
+    private void clearChunks() {
         synchronized (chunks) {
+            for (ESPChunk chunk : chunks.values()) chunk.destroy();
+
             chunks.clear();
             groups.clear();
         }
@@ -120,6 +191,10 @@ public class BlockESP extends Module {
         for (ESPBlockData blockData : blockConfigs.get().values()) blockData.tickRainbow();
     }
 
+    boolean isGreedyMeshing() {
+        return greedyMeshing.get();
+    }
+
     ESPBlockData getBlockData(Block block) {
         ESPBlockData blockData = blockConfigs.get().get(block);
         return blockData == null ? defaultBlockConfig.get() : blockData;
@@ -130,6 +205,14 @@ public class BlockESP extends Module {
         if (chunk != null) chunk.update();
     }
 
+    // Faces and edges at the border of the neighbouring meshes depend on the blocks of this chunk
+    private void updateNeighbours(int x, int z) {
+        updateChunk(x - 1, z);
+        updateChunk(x + 1, z);
+        updateChunk(x, z - 1);
+        updateChunk(x, z + 1);
+    }
+
     private void updateBlock(int x, int y, int z) {
         ESPChunk chunk = chunks.get(ChunkPos.toLong(x >> 4, z >> 4));
         if (chunk != null) chunk.update(x, y, z);
@@ -160,25 +243,47 @@ public class BlockESP extends Module {
     }
 
     private void searchChunk(Chunk chunk) {
-        workerThread.submit(() -> {
-            if (!isActive()) return;
-            ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks.get());
+        int generation = searchGeneration;
+        RegistryBitSet<Block> blocks = this.blocks.getBitSet();
 
-            if (schunk.size() > 0) {
-                synchronized (chunks) {
-                    chunks.put(chunk.getPos().toLong(), schunk);
-                    schunk.update();
-
-                    // Update neighbour chunks
-                    updateChunk(chunk.getPos().x - 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x + 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z - 1);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z + 1);
-                }
+        Runnable task = () -> {
+            if (!isActive() || generation != searchGeneration) return;
+            ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks);
+
+            if (schunk.size() > 0 && generation == searchGeneration) {
+                searchedChunks.add(new SearchResult(schunk, generation));
+                if (mergeQueued.compareAndSet(false, true)) submit(this::mergeSearchedChunks);
             }
-        });
+        };
+
+        // Checking and submitting under the same lock so onRelease() can't shut the pool down in between
+        synchronized (executorLock) {
+            if (searchPool != null) searchPool.execute(task);
+        }
     }
 
+    private void mergeSearchedChunks() {
+        mergeQueued.set(false);
+        if (searchedChunks.isEmpty()) return;
+
+        // Take the lock once for everything that finished searching since the last merge instead of once per chunk
+        synchronized (chunks) {
+            for (SearchResult result; (result = searchedChunks.poll()) != null;) {
+                // Searched before the module was toggled, the blocks changed or the dimension changed
+                if (!isActive() || result.generation != searchGeneration) continue;
+
+                ESPChunk schunk = result.chunk;
+                ESPChunk previous = chunks.put(ChunkPos.toLong(schunk.x, schunk.z), schunk);
+                if (previous != null) previous.destroy();
+
+                schunk.update();
+                updateNeighbours(schunk.x, schunk.z);
+            }
+        }
+    }
+
+    private record SearchResult(ESPChunk chunk, int generation) {}
+
     @EventHandler
     private void onBlockUpdate(BlockUpdateEvent event) {
         // Minecraft probably reuses the event.pos BlockPos instance because it causes problems when trying to use it inside another thread
@@ -190,11 +295,14 @@ public class BlockESP extends Module {
         int chunkZ = bz >> 4;
         long key = ChunkPos.toLong(chunkX, chunkZ);
 
-        boolean added = blocks.get().contains(event.newState.getBlock()) && !blocks.get().contains(event.oldState.getBlock());
-        boolean removed = !added && !blocks.get().contains(event.newState.getBlock()) && blocks.get().contains(event.oldState.getBlock());
+        boolean newSelected = blocks.contains(event.newState);
+        boolean oldSelected = blocks.contains(event.oldState);
+
+        boolean added = newSelected && !oldSelected;
+        boolean removed = !newSelected && oldSelected;
 
         if (added || removed) {
-            workerThread.submit(() -> {
+            submit(() -> {
                 synchronized (chunks) {
                     ESPChunk chunk = chunks.get(key);
 
@@ -237,20 +345,39 @@ public class BlockESP extends Module {
     @EventHandler
     private void onRender(Render3DEvent event) {
         synchronized (chunks) {
+            // Chunk meshes are cached so they need to be rebuilt when any of the colors or the meshing change
+            int colorsHash = 31 * getColorsHash() + (greedyMeshing.get() ? 1 : 0);
+
+            if (colorsHash != lastColorsHash) {
+                for (ESPChunk chunk : chunks.values()) chunk.markDirty();
+                lastColorsHash = colorsHash;
+            }
+
+            vertexCount = 0;
+
             for (Iterator<ESPChunk> it = chunks.values().iterator(); it.hasNext();) {
                 ESPChunk chunk = it.next();
 
                 if (chunk.shouldBeDeleted()) {
-                    workerThread.submit(() -> {
+                    submit(() -> {
                         for (ESPBlock block : chunk.blocks.values()) {
                             block.group.remove(block, false);
                             block.loaded = false;
                         }
+
+                        // Neighbours now end at this chunk, they are rebuilt in the next frame
+                        synchronized (chunks) {
+                            updateNeighbours(chunk.x, chunk.z);
+                        }
                     });
 
+                    chunk.destroy();
                     it.remove();
                 }
-                else chunk.render(event);
+                else {
+                    chunk.render(event.queue);
+                    vertexCount += chunk.getVertexCount();
+                }
             }
 
             if (tracers.get()) {
@@ -261,8 +388,42 @@ public class BlockESP extends Module {
         }
     }
 
+    private int getColorsHash() {
+        int hash = getColorsHash(defaultBlockConfig.get());
+        for (ESPBlockData blockData : blockConfigs.get().values()) hash = 31 * hash + getColorsHash(blockData);
+
+        return hash;
+    }
+
+    // Rainbow colors change every tick but the meshes are only tinted with them, so only the configured color is hashed
+    private static int getColorsHash(ESPBlockData blockData) {
+        int hash = blockData.shapeMode.ordinal();
+        hash = 31 * hash + getColorHash(blockData.lineColor);
+        hash = 31 * hash + getColorHash(blockData.sideColor);
+
+        return hash;
+    }
+
+    private static int getColorHash(SettingColor color) {
+        return color.rainbow ? 31 * color.a + 1 : 31 * color.getPacked();
+    }
+
+    boolean hasRainbowColors() {
+        if (hasRainbowColors(defaultBlockConfig.get())) return true;
+
+        for (ESPBlockData blockData : blockConfigs.get().values()) {
+            if (hasRainbowColors(blockData)) return true;
+        }
+
+        return false;
+    }
+
+    private static boolean hasRainbowColors(ESPBlockData blockData) {
+        return blockData.lineColor.rainbow || blockData.sideColor.rainbow;
+    }
+
     @Override
     public String getInfoString() {
-        return "%s groups".formatted(groups.size());
+        return "%s groups, %s vertices".formatted(groups.size(), vertexCount);
     }
 }
@@ -5,26 +5,54 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
+import com.mojang.blaze3d.systems.RenderSystem;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.renderer.*;
+import meteordevelopment.meteorclient.systems.modules.Modules;
+import meteordevelopment.meteorclient.utils.misc.RegistryBitSet;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.render.color.RainbowColors;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static meteordevelopment.meteorclient.utils.Utils.getRenderDistance;
 
 public class ESPChunk {
 
-    private final int x, z;
+    private static final BlockESP blockEsp = Modules.get().get(BlockESP.class);
+
+    private static GreedyOutput greedyOutput;
+
+    // Only used on the render thread while building
+    private static final Color LINE_COLOR = new Color();
+    private static final Color SIDE_COLOR = new Color();
+
+    final int x, z;
     public Long2ObjectMap<ESPBlock> blocks;
 
+    // Lines and sides with rainbow colors are rendered white into the second renderer which is tinted with the rainbow
+    private Renderer3D renderer, rainbowRenderer;
+    private volatile boolean dirty = true;
+
     public ESPChunk(int x, int z) {
         this.x = x;
         this.z = z;
@@ -39,6 +67,7 @@ public class ESPChunk {
 
         if (blocks == null) blocks = new Long2ObjectOpenHashMap<>(64);
         blocks.put(ESPBlock.getKey(blockPos), block);
+        dirty = true;
 
         if (update) block.update();
     }
@@ -51,19 +80,25 @@ public class ESPChunk {
         if (blocks != null) {
             ESPBlock block = blocks.remove(ESPBlock.getKey(blockPos));
             if (block != null) block.group.remove(block);
+
+            dirty = true;
         }
     }
 
     public void update() {
         if (blocks != null) {
             for (ESPBlock block : blocks.values()) block.update();
+            dirty = true;
         }
     }
 
     public void update(int x, int y, int z) {
         if (blocks != null) {
             ESPBlock block = blocks.get(ESPBlock.getKey(x, y, z));
-            if (block != null) block.update();
+            if (block != null) {
+                block.update();
+                dirty = true;
+            }
         }
     }
 
@@ -79,32 +114,232 @@ public class ESPChunk {
         return x > chunkX + viewDist || x < chunkX - viewDist || z > chunkZ + viewDist || z < chunkZ - viewDist;
     }
 
-    public void render(Render3DEvent event) {
-        if (blocks != null) {
-            for (ESPBlock block : blocks.values()) block.render(event);
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /** Queues the cached meshes, rebuilding them first if any block changed. Must be called on the render thread. */
+    public void render(RenderQueue queue) {
+        if (blocks == null) return;
+
+        if (dirty || renderer == null) {
+            dirty = false;
+
+            boolean rainbow = blockEsp.hasRainbowColors();
+
+            if (renderer == null) renderer = new Renderer3D(Mesh.Usage.Static);
+            if (rainbow && rainbowRenderer == null) {
+                rainbowRenderer = new Renderer3D(Mesh.Usage.Static);
+                rainbowRenderer.lines.tint = RainbowColors.GLOBAL;
+                rainbowRenderer.triangles.tint = RainbowColors.GLOBAL;
+            }
+
+            renderer.begin(x << 4, 0, z << 4);
+            if (rainbow) rainbowRenderer.begin(x << 4, 0, z << 4);
+
+            if (blockEsp.isGreedyMeshing()) buildGreedy();
+            else {
+                for (ESPBlock block : blocks.values()) render(block);
+            }
+
+            renderer.end();
+            if (rainbow) rainbowRenderer.end();
+            else if (rainbowRenderer != null) {
+                rainbowRenderer.destroy();
+                rainbowRenderer = null;
+            }
+        }
+
+        renderer.submit(queue);
+        if (rainbowRenderer != null) rainbowRenderer.submit(queue);
+    }
+
+    public int getVertexCount() {
+        return getVertexCount(renderer) + getVertexCount(rainbowRenderer);
+    }
+
+    public long getMemoryUsage() {
+        return getMemoryUsage(renderer) + getMemoryUsage(rainbowRenderer);
+    }
+
+    private void render(ESPBlock block) {
+        ESPBlockData blockData = blockEsp.getBlockData(block.getBlock());
+
+        block.render(
+            getRenderer(blockData.lineColor), getRenderer(blockData.sideColor),
+            blockData.lineColor.getMeshColor(LINE_COLOR), blockData.sideColor.getMeshColor(SIDE_COLOR),
+            blockData.shapeMode
+        );
+    }
+
+    private Renderer3D getRenderer(SettingColor color) {
+        return color.rainbow ? rainbowRenderer : renderer;
+    }
+
+    private static int getVertexCount(Renderer3D renderer) {
+        return renderer == null ? 0 : renderer.lines.getVertexCount() + renderer.triangles.getVertexCount();
+    }
+
+    private static long getMemoryUsage(Renderer3D renderer) {
+        return renderer == null ? 0 : renderer.lines.getMemoryUsage() + renderer.triangles.getMemoryUsage();
+    }
+
+    /**
+     * Merges the exposed faces of connected full blocks of the same type into large quads and only adds the outline
+     * edges around them. Other blocks are rendered one by one.
+     */
+    private void buildGreedy() {
+        Reference2ObjectMap<Block, IntSet> sections = new Reference2ObjectOpenHashMap<>();
+
+        for (ESPBlock block : blocks.values()) {
+            if (block.isFullCube()) sections.computeIfAbsent(block.getBlock(), b -> new IntOpenHashSet()).add(block.y >> 4);
+            else render(block);
+        }
+
+        if (greedyOutput == null) greedyOutput = new GreedyOutput();
+
+        for (Reference2ObjectMap.Entry<Block, IntSet> entry : sections.reference2ObjectEntrySet()) {
+            Block type = entry.getKey();
+            ESPBlockData blockData = blockEsp.getBlockData(type);
+
+            greedyOutput.shapeMode = blockData.shapeMode;
+            greedyOutput.lines = getRenderer(blockData.lineColor);
+            greedyOutput.sides = getRenderer(blockData.sideColor);
+            greedyOutput.lineColor = blockData.lineColor.getMeshColor(LINE_COLOR);
+            greedyOutput.sideColor = blockData.sideColor.getMeshColor(SIDE_COLOR);
+
+            for (int sectionY : entry.getValue()) {
+                greedyOutput.mesher.mesh(x, sectionY, z, (x, y, z) -> isFullCube(x, y, z, type), greedyOutput);
+            }
         }
     }
 
+    private boolean isFullCube(int x, int y, int z, Block type) {
+        ESPBlock block = (x >> 4) == this.x && (z >> 4) == this.z ? get(x, y, z) : blockEsp.getBlock(x, y, z);
+        return block != null && block.isFullCube() && block.getBlock() == type;
+    }
+
+    /** Releases the GPU buffers, can be called from any thread. */
+    public void destroy() {
+        Renderer3D renderer = this.renderer;
+        Renderer3D rainbowRenderer = this.rainbowRenderer;
+        this.renderer = null;
+        this.rainbowRenderer = null;
 
-    public static ESPChunk searchChunk(Chunk chunk, List<Block> blocks) {
+        if (renderer != null) RenderSystem.recordRenderCall(renderer::destroy);
+        if (rainbowRenderer != null) RenderSystem.recordRenderCall(rainbowRenderer::destroy);
+    }
+
+    /** Releases the mesher scratch shared by all chunks. */
+    static void releaseMesher() {
+        greedyOutput = null;
+    }
+
+    /**
+     * Searches the chunk for the given blocks. Sections whose palette can't contain any of the blocks are skipped and
+     * the remaining ones are searched in parallel when called from inside a {@link java.util.concurrent.ForkJoinPool}.
+     */
+    public static ESPChunk searchChunk(Chunk chunk, RegistryBitSet<Block> blocks) {
         ESPChunk schunk = new ESPChunk(chunk.getPos().x, chunk.getPos().z);
         if (schunk.shouldBeDeleted()) return schunk;
 
+        if (blocks.isEmpty()) return schunk;
+
+        Predicate<BlockState> predicate = state -> blocks.contains(state.getBlock());
+
+        Heightmap heightmap = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE);
+        int[] heights = new int[16 * 16];
+        int maxHeight = Integer.MIN_VALUE;
+
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int height = heightmap.get(x, z);
+
+                heights[(z << 4) | x] = height;
+                maxHeight = Math.max(maxHeight, height);
+            }
+        }
+
+        ChunkSection[] sections = chunk.getSectionArray();
+        List<SectionSearch> tasks = new ArrayList<>(sections.length);
+
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            int startY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+
+            if (section == null || startY >= maxHeight || !section.hasAny(predicate)) continue;
+            tasks.add(new SectionSearch(section, chunk.getPos().getStartX(), startY, chunk.getPos().getStartZ(), heights, predicate));
+        }
+
+        if (tasks.isEmpty()) return schunk;
+        if (tasks.size() == 1) tasks.getFirst().invoke();
+        else ForkJoinTask.invokeAll(tasks);
+
         BlockPos.Mutable blockPos = new BlockPos.Mutable();
 
-        for (int x = chunk.getPos().getStartX(); x <= chunk.getPos().getEndX(); x++) {
-            for (int z = chunk.getPos().getStartZ(); z <= chunk.getPos().getEndZ(); z++) {
-                int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - chunk.getPos().getStartX(), z - chunk.getPos().getStartZ());
+        for (SectionSearch task : tasks) {
+            LongArrayList found = task.join();
+
+            for (int i = 0; i < found.size(); i++) {
+                schunk.add(blockPos.set(found.getLong(i)), false);
+            }
+        }
+
+        return schunk;
+    }
+
+    private static class SectionSearch extends RecursiveTask<LongArrayList> {
+        private final ChunkSection section;
+        private final int startX, startY, startZ;
+        private final int[] heights;
+        private final Predicate<BlockState> predicate;
+
+        public SectionSearch(ChunkSection section, int startX, int startY, int startZ, int[] heights, Predicate<BlockState> predicate) {
+            this.section = section;
+            this.startX = startX;
+            this.startY = startY;
+            this.startZ = startZ;
+            this.heights = heights;
+            this.predicate = predicate;
+        }
 
-                for (int y = mc.world.getBottomY(); y < height; y++) {
-                    blockPos.set(x, y, z);
-                    BlockState bs = chunk.getBlockState(blockPos);
+        @Override
+        protected LongArrayList compute() {
+            LongArrayList found = new LongArrayList();
 
-                    if (blocks.contains(bs.getBlock())) schunk.add(blockPos, false);
+            // Iterate in the same y-z-x order the paletted container stores its entries in
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (startY + y >= heights[(z << 4) | x]) continue;
+
+                        if (predicate.test(section.getBlockState(x, y, z))) {
+                            found.add(BlockPos.asLong(startX + x, startY + y, startZ + z));
+                        }
+                    }
                 }
             }
+
+            return found;
         }
+    }
 
-        return schunk;
+    private static class GreedyOutput implements GreedyMesher.Output {
+        public final GreedyMesher mesher = new GreedyMesher();
+        private final int[] pos = new int[3];
+
+        public ShapeMode shapeMode;
+        public Renderer3D lines, sides;
+        public Color lineColor, sideColor;
+
+        @Override
+        public void quad(int axis, int plane, int u1, int v1, int u2, int v2) {
+            if (shapeMode.sides()) GreedyMesher.quad(sides, axis, plane, u1, v1, u2, v2, pos, sideColor);
+        }
+
+        @Override
+        public void line(int x1, int y1, int z1, int x2, int y2, int z2) {
+            if (shapeMode.lines()) lines.line(x1, y1, z1, x2, y2, z2, lineColor);
+        }
     }
 }
@@ -5,7 +5,7 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.misc.UnorderedArrayList;
@@ -13,8 +13,9 @@ import meteordevelopment.meteorclient.utils.render.RenderUtils;
 import net.minecraft.block.Block;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
-import java.util.Set;
 
 public class ESPGroup {
     private static final BlockESP blockEsp = Modules.get().get(BlockESP.class);
@@ -30,12 +31,14 @@ public class ESPGroup {
     }
 
     public void add(ESPBlock block, boolean removeFromOld, boolean splitGroup) {
+        if (block.group != null && removeFromOld) block.group.remove(block, splitGroup);
+
+        block.groupIndex = blocks.size();
         blocks.add(block);
         sumX += block.x;
         sumY += block.y;
         sumZ += block.z;
 
-        if (block.group != null && removeFromOld) block.group.remove(block, splitGroup);
         block.group = this;
     }
 
@@ -44,12 +47,9 @@ public class ESPGroup {
     }
 
     public void remove(ESPBlock block, boolean splitGroup) {
-        blocks.remove(block);
-        sumX -= block.x;
-        sumY -= block.y;
-        sumZ -= block.z;
+        removeAt(block);
 
-        if (blocks.isEmpty()) blockEsp.removeGroup(block.group);
+        if (blocks.isEmpty()) blockEsp.removeGroup(this);
         else if (splitGroup) {
             trySplit(block);
         }
@@ -59,83 +59,146 @@ public class ESPGroup {
         remove(block, true);
     }
 
+    /** Swap removes the block using its index in this group. */
+    private void removeAt(ESPBlock block) {
+        int index = block.groupIndex;
+
+        blocks.remove(index);
+        if (index < blocks.size()) blocks.get(index).groupIndex = index;
+
+        block.groupIndex = -1;
+        sumX -= block.x;
+        sumY -= block.y;
+        sumZ -= block.z;
+    }
+
+    /**
+     * Searches from every neighbour of the removed block at the same time, one block per search in turns. Searches
+     * which meet are joined, a search which runs out of blocks before meeting the others found a disconnected part
+     * which is moved to a new group. The work is bound by the size of the smaller parts so removing blocks from a
+     * large group doesn't walk the whole group.
+     */
     private void trySplit(ESPBlock block) {
-        Set<ESPBlock> neighbours = new ObjectOpenHashSet<>(6);
+        List<ESPBlock> starts = new ArrayList<>(6);
 
         for (int side : ESPBlock.SIDES) {
-            if ((block.neighbours & side) == side) {
-                ESPBlock neighbour = block.getSideBlock(side);
-                if (neighbour != null) neighbours.add(neighbour);
-            }
+            if ((block.neighbours & side) != side) continue;
+
+            ESPBlock neighbour = block.getSideBlock(side);
+            if (neighbour != null && neighbour.group == this && !starts.contains(neighbour)) starts.add(neighbour);
         }
-        if (neighbours.size() <= 1) return;
 
-        Set<ESPBlock> remainingBlocks = new ObjectOpenHashSet<>(blocks);
-        Queue<ESPBlock> blocksToCheck = new ArrayDeque<>();
+        int searches = starts.size();
+        if (searches <= 1) return;
+
+        Reference2IntOpenHashMap<ESPBlock> owners = new Reference2IntOpenHashMap<>();
+        owners.defaultReturnValue(-1);
+
+        // Union find over the searches, joined searches share the queue and visited blocks of their root
+        int[] parents = new int[searches];
+        List<Queue<ESPBlock>> queues = new ArrayList<>(searches);
+        List<List<ESPBlock>> visited = new ArrayList<>(searches);
+
+        for (int i = 0; i < searches; i++) {
+            ESPBlock start = starts.get(i);
+
+            parents[i] = i;
+            owners.put(start, i);
+
+            Queue<ESPBlock> queue = new ArrayDeque<>();
+            queue.offer(start);
+            queues.add(queue);
+
+            List<ESPBlock> list = new ArrayList<>();
+            list.add(start);
+            visited.add(list);
+        }
 
-        blocksToCheck.offer(blocks.getFirst());
-        remainingBlocks.remove(blocks.getFirst());
-        neighbours.remove(blocks.getFirst());
+        int components = searches;
 
-        loop: {
-            while (!blocksToCheck.isEmpty()) {
-                ESPBlock b = blocksToCheck.poll();
+        while (components > 1) {
+            for (int i = 0; i < searches && components > 1; i++) {
+                if (parents[i] != i) continue;
+
+                Queue<ESPBlock> queue = queues.get(i);
+
+                if (queue == null) continue;
+
+                // Everything reachable was visited without meeting another search
+                if (queue.isEmpty()) {
+                    splitOff(visited.get(i));
+
+                    queues.set(i, null);
+                    components--;
+                    continue;
+                }
+
+                ESPBlock b = queue.poll();
 
                 for (int side : ESPBlock.SIDES) {
                     if ((b.neighbours & side) != side) continue;
+
                     ESPBlock neighbour = b.getSideBlock(side);
+                    if (neighbour == null || neighbour == block || neighbour.group != this) continue;
 
-                    if (neighbour != null && remainingBlocks.contains(neighbour)) {
-                        blocksToCheck.offer(neighbour);
-                        remainingBlocks.remove(neighbour);
+                    int owner = owners.getInt(neighbour);
 
-                        neighbours.remove(neighbour);
-                        if (neighbours.isEmpty()) break loop;
+                    if (owner == -1) {
+                        owners.put(neighbour, i);
+                        queue.offer(neighbour);
+                        visited.get(i).add(neighbour);
+                    }
+                    else {
+                        int root = find(parents, owner);
+                        if (root == i) continue;
+
+                        // Join the other search into this one
+                        parents[root] = i;
+                        queue.addAll(queues.get(root));
+                        visited.get(i).addAll(visited.get(root));
+                        queues.set(root, null);
+                        visited.set(root, null);
+
+                        if (--components == 1) break;
                     }
                 }
             }
         }
+    }
 
-        if (!neighbours.isEmpty()) {
-            ESPGroup group = blockEsp.newGroup(this.block);
-            group.blocks.ensureCapacity(remainingBlocks.size());
-
-            blocks.removeIf(remainingBlocks::contains);
-
-            for (ESPBlock b : remainingBlocks) {
-                group.add(b, false, false);
-
-                sumX -= b.x;
-                sumY -= b.y;
-                sumZ -= b.z;
-            }
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
 
-            if (neighbours.size() > 1) {
-                block.neighbours = 0;
+        return i;
+    }
 
-                for (ESPBlock b : neighbours) {
-                    int x = b.x - block.x;
-                    if (x == 1) block.neighbours |= ESPBlock.RI;
-                    else if (x == -1) block.neighbours |= ESPBlock.LE;
+    private void splitOff(List<ESPBlock> part) {
+        ESPGroup group = blockEsp.newGroup(this.block);
+        group.blocks.ensureCapacity(part.size());
 
-                    int y = b.y - block.y;
-                    if (y == 1) block.neighbours |= ESPBlock.TO;
-                    else if (y == -1) block.neighbours |= ESPBlock.BO;
+        for (ESPBlock b : part) {
+            removeAt(b);
+            group.add(b, false, false);
+        }
+    }
 
-                    int z = b.z - block.z;
-                    if (z == 1) block.neighbours |= ESPBlock.FO;
-                    else if (z == -1) block.neighbours |= ESPBlock.BA;
-                }
+    /** Moves the blocks of the smaller group into the bigger one. */
+    public ESPGroup merge(ESPGroup group) {
+        ESPGroup into = this, from = group;
 
-                group.trySplit(block);
-            }
+        if (from.blocks.size() > into.blocks.size()) {
+            into = group;
+            from = this;
         }
-    }
 
-    public void merge(ESPGroup group) {
-        blocks.ensureCapacity(blocks.size() + group.blocks.size());
-        for (ESPBlock block : group.blocks) add(block, false, false);
-        blockEsp.removeGroup(group);
+        into.blocks.ensureCapacity(into.blocks.size() + from.blocks.size());
+        for (ESPBlock block : from.blocks) into.add(block, false, false);
+        blockEsp.removeGroup(from);
+
+        return into;
     }
 
     public void render(Render3DEvent event) {
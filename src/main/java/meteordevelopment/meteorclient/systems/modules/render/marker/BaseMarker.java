@@ -10,6 +10,7 @@ import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.screens.MarkerScreen;
 import meteordevelopment.meteorclient.gui.widgets.WWidget;
 import meteordevelopment.meteorclient.settings.*;
+import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.world.Dimension;
@@ -17,7 +18,7 @@ import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.nbt.NbtCompound;
 
 public abstract class BaseMarker implements ISerializable<BaseMarker> {
-    public final Settings settings = new Settings();
+    public final Settings settings = new Settings(Modules.class);
 
     protected final SettingGroup sgBase = settings.createGroup("Base");
 
@@ -57,6 +58,9 @@ public abstract class BaseMarker implements ISerializable<BaseMarker> {
 
     protected void tick() {}
 
+    /** Called when the marker is removed, releases any resources it holds. */
+    public void destroy() {}
+
     public Screen getScreen(GuiTheme theme) {
         return new MarkerScreen(theme, this);
     }
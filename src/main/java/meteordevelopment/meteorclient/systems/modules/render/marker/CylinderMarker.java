@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.marker;
+
+import meteordevelopment.meteorclient.settings.*;
+import net.minecraft.util.math.BlockPos;
+
+public class CylinderMarker extends VoxelMarker {
+    public static final String type = "Cylinder";
+
+    private final Setting<BlockPos> center = sgGeneral.add(new BlockPosSetting.Builder()
+        .name("center")
+        .description("Center of the bottom of the cylinder")
+        .onChanged(bp -> markDirty())
+        .build()
+    );
+
+    private final Setting<Integer> radius = sgGeneral.add(new IntSetting.Builder()
+        .name("radius")
+        .description("Radius of the cylinder")
+        .defaultValue(20)
+        .min(1)
+        .noSlider()
+        .onChanged(r -> markDirty())
+        .build()
+    );
+
+    private final Setting<Integer> height = sgGeneral.add(new IntSetting.Builder()
+        .name("height")
+        .description("Height of the cylinder")
+        .defaultValue(10)
+        .min(1)
+        .noSlider()
+        .onChanged(h -> markDirty())
+        .build()
+    );
+
+    private final Setting<Boolean> hollow = sgGeneral.add(new BoolSetting.Builder()
+        .name("hollow")
+        .description("Only marks the walls of the cylinder")
+        .defaultValue(true)
+        .onChanged(h -> markDirty())
+        .build()
+    );
+
+    public CylinderMarker() {
+        super(type);
+    }
+
+    @Override
+    public String getTypeName() {
+        return type;
+    }
+
+    @Override
+    protected BlockPos getOrigin() {
+        return center.get();
+    }
+
+    @Override
+    protected void calculate(VoxelSet voxels) {
+        int cX = center.get().getX();
+        int cY = center.get().getY();
+        int cZ = center.get().getZ();
+
+        int r = radius.get();
+        double rSq = (r + 0.5) * (r + 0.5);
+
+        for (int dX = -r; dX <= r; dX++) {
+            for (int dZ = -r; dZ <= r; dZ++) {
+                if (!isInside(rSq, dX, dZ)) continue;
+
+                // Walls are the columns next to a column outside of the circle
+                if (hollow.get() && isInside(rSq, dX + 1, dZ) && isInside(rSq, dX - 1, dZ) && isInside(rSq, dX, dZ + 1) && isInside(rSq, dX, dZ - 1)) continue;
+
+                for (int dY = 0; dY < height.get(); dY++) {
+                    voxels.add(cX + dX, cY + dY, cZ + dZ);
+                }
+            }
+        }
+    }
+
+    private static boolean isInside(double rSq, int dX, int dZ) {
+        return dX * dX + dZ * dZ <= rSq;
+    }
+}
@@ -69,6 +69,7 @@ public class Marker extends Module {
     public Module fromTag(NbtCompound tag) {
         super.fromTag(tag);
 
+        for (BaseMarker marker : markers) marker.destroy();
         markers.clear();
         NbtList list = tag.getList("markers", 10);
 
@@ -123,6 +124,7 @@ public class Marker extends Module {
             remove.action = () -> {
                 markers.remove(marker);
                 marker.settings.unregisterColorSettings();
+                marker.destroy();
 
                 list.clear();
                 fillList(theme, list);
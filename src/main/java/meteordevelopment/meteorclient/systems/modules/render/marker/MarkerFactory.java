@@ -22,6 +22,8 @@ public class MarkerFactory {
         factories = new HashMap<>();
         factories.put(CuboidMarker.type, CuboidMarker::new);
         factories.put(Sphere2dMarker.type, Sphere2dMarker::new);
+        factories.put(SphereMarker.type, SphereMarker::new);
+        factories.put(CylinderMarker.type, CylinderMarker::new);
 
         names = new String[factories.size()];
         int i = 0;
@@ -0,0 +1,93 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.marker;
+
+import meteordevelopment.meteorclient.settings.*;
+import net.minecraft.util.math.BlockPos;
+
+public class SphereMarker extends VoxelMarker {
+    public static final String type = "Sphere";
+
+    private final Setting<BlockPos> center = sgGeneral.add(new BlockPosSetting.Builder()
+        .name("center")
+        .description("Center of the sphere")
+        .onChanged(bp -> markDirty())
+        .build()
+    );
+
+    private final Setting<Integer> radius = sgGeneral.add(new IntSetting.Builder()
+        .name("radius")
+        .description("Radius of the sphere")
+        .defaultValue(20)
+        .min(1)
+        .noSlider()
+        .onChanged(r -> markDirty())
+        .build()
+    );
+
+    private final Setting<Boolean> hollow = sgGeneral.add(new BoolSetting.Builder()
+        .name("hollow")
+        .description("Only marks the outer shell of the sphere")
+        .defaultValue(true)
+        .onChanged(h -> markDirty())
+        .build()
+    );
+
+    public SphereMarker() {
+        super(type);
+    }
+
+    @Override
+    public String getTypeName() {
+        return type;
+    }
+
+    @Override
+    protected BlockPos getOrigin() {
+        return center.get();
+    }
+
+    @Override
+    protected void calculate(VoxelSet voxels) {
+        int cX = center.get().getX();
+        int cY = center.get().getY();
+        int cZ = center.get().getZ();
+
+        int r = radius.get();
+        double rSq = (r + 0.5) * (r + 0.5);
+
+        // Every column of the sphere spans from -height to height
+        for (int dX = -r; dX <= r; dX++) {
+            for (int dZ = -r; dZ <= r; dZ++) {
+                int height = getHeight(rSq, dX, dZ);
+                if (height < 0) continue;
+
+                // Blocks above the lowest neighbouring column are visible from the side
+                int bottom = 0;
+
+                if (hollow.get()) {
+                    int neighbour = Math.min(
+                        Math.min(getHeight(rSq, dX + 1, dZ), getHeight(rSq, dX - 1, dZ)),
+                        Math.min(getHeight(rSq, dX, dZ + 1), getHeight(rSq, dX, dZ - 1))
+                    );
+
+                    bottom = Math.min(neighbour + 1, height);
+                }
+
+                for (int dY = bottom; dY <= height; dY++) {
+                    voxels.add(cX + dX, cY + dY, cZ + dZ);
+                    voxels.add(cX + dX, cY - dY, cZ + dZ);
+                }
+            }
+        }
+    }
+
+    /** @return half the height of the column or -1 if it is outside of the sphere */
+    private static int getHeight(double rSq, int dX, int dZ) {
+        double hSq = rSq - dX * dX - dZ * dZ;
+        return hSq < 0 ? -1 : (int) Math.sqrt(hSq);
+    }
+}
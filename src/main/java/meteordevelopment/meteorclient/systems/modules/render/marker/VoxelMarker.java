@@ -0,0 +1,159 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.marker;
+
+import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.renderer.ShapeMode;
+import meteordevelopment.meteorclient.settings.*;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import meteordevelopment.meteorclient.utils.player.PlayerUtils;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.Dir;
+import net.minecraft.util.math.BlockPos;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Marker made of single blocks. The blocks are calculated on another thread whenever a setting changes and rendered
+ * from a cached mesh of merged faces.
+ */
+public abstract class VoxelMarker extends BaseMarker {
+    protected final SettingGroup sgGeneral = settings.getDefaultGroup();
+    protected final SettingGroup sgRender = settings.createGroup("Render");
+
+    // Render
+
+    private final Setting<Boolean> limitRenderRange = sgRender.add(new BoolSetting.Builder()
+        .name("limit-render-range")
+        .description("Whether to limit rendering range (useful in very large circles)")
+        .defaultValue(false)
+        .build()
+    );
+
+    private final Setting<Integer> renderRange = sgRender.add(new IntSetting.Builder()
+        .name("render-range")
+        .description("Rendering range")
+        .defaultValue(10)
+        .min(1)
+        .sliderRange(1, 20)
+        .visible(limitRenderRange::get)
+        .build()
+    );
+
+    private final Setting<ShapeMode> shapeMode = sgRender.add(new EnumSetting.Builder<ShapeMode>()
+        .name("shape-mode")
+        .description("How the shapes are rendered.")
+        .defaultValue(ShapeMode.Both)
+        .build()
+    );
+
+    private final Setting<SettingColor> sideColor = sgRender.add(new ColorSetting.Builder()
+        .name("side-color")
+        .description("The color of the sides of the blocks being rendered.")
+        .defaultValue(new SettingColor(0, 100, 255, 50))
+        .build()
+    );
+
+    private final Setting<SettingColor> lineColor = sgRender.add(new ColorSetting.Builder()
+        .name("line-color")
+        .description("The color of the lines of the blocks being rendered.")
+        .defaultValue(new SettingColor(0, 100, 255, 255))
+        .build()
+    );
+
+    private VoxelSet voxels = new VoxelSet();
+    private VoxelMesh mesh;
+
+    private volatile VoxelSet calculatedVoxels;
+    private volatile VoxelMesh calculatedMesh;
+    private volatile boolean dirty = true, calculating;
+
+    public VoxelMarker(String name) {
+        super(name);
+    }
+
+    /** Adds the blocks of the marker, called on a worker thread. */
+    protected abstract void calculate(VoxelSet voxels);
+
+    /** Position the mesh vertices are stored relative to, should be close to the blocks. */
+    protected abstract BlockPos getOrigin();
+
+    /** Calculates the blocks again before the next frame. */
+    protected void markDirty() {
+        dirty = true;
+    }
+
+    @Override
+    protected void render(Render3DEvent event) {
+        // Swap in the result of the last calculation
+        VoxelMesh calculatedMesh = this.calculatedMesh;
+
+        if (calculatedMesh != null) {
+            if (mesh != null) mesh.destroy();
+
+            voxels = calculatedVoxels;
+            mesh = calculatedMesh;
+
+            this.calculatedMesh = null;
+            calculatedVoxels = null;
+        }
+
+        if (dirty && !calculating) startCalculation();
+
+        if (limitRenderRange.get()) renderNear(event);
+        else if (mesh != null) mesh.render(event.queue, sideColor.get(), lineColor.get(), shapeMode.get());
+    }
+
+    private void renderNear(Render3DEvent event) {
+        int range = renderRange.get();
+        BlockPos pos = mc.player.getBlockPos();
+
+        for (int x = pos.getX() - range; x <= pos.getX() + range; x++) {
+            for (int y = pos.getY() - range; y <= pos.getY() + range; y++) {
+                for (int z = pos.getZ() - range; z <= pos.getZ() + range; z++) {
+                    if (!voxels.contains(x, y, z) || !PlayerUtils.isWithin(x, y, z, range)) continue;
+
+                    int excludeDir = 0;
+                    if (voxels.contains(x + 1, y, z)) excludeDir |= Dir.EAST;
+                    if (voxels.contains(x - 1, y, z)) excludeDir |= Dir.WEST;
+                    if (voxels.contains(x, y + 1, z)) excludeDir |= Dir.UP;
+                    if (voxels.contains(x, y - 1, z)) excludeDir |= Dir.DOWN;
+                    if (voxels.contains(x, y, z + 1)) excludeDir |= Dir.SOUTH;
+                    if (voxels.contains(x, y, z - 1)) excludeDir |= Dir.NORTH;
+
+                    event.renderer.box(x, y, z, x + 1, y + 1, z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
+                }
+            }
+        }
+    }
+
+    private void startCalculation() {
+        // Changes made while calculating start another calculation afterwards
+        dirty = false;
+        calculating = true;
+
+        MeteorExecutor.execute(() -> {
+            try {
+                VoxelSet voxels = new VoxelSet();
+                calculate(voxels);
+
+                BlockPos origin = getOrigin();
+                VoxelMesh mesh = VoxelMesh.build(voxels, origin.getX(), origin.getY(), origin.getZ());
+
+                calculatedVoxels = voxels;
+                calculatedMesh = mesh;
+            } finally {
+                calculating = false;
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (mesh != null) mesh.destroy();
+        mesh = null;
+    }
+}
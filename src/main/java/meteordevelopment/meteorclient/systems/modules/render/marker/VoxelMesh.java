@@ -0,0 +1,123 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.marker;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import meteordevelopment.meteorclient.renderer.*;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+
+/**
+ * Faces of a {@link VoxelSet} which aren't covered by another voxel, greedily merged into rectangles inside every
+ * section, and the outline edges around them. The geometry can be built on any thread, it is uploaded to the GPU
+ * when first rendered and afterwards only when the colors change. Rainbow colors tint the meshes instead.
+ */
+public class VoxelMesh {
+    // Axis, plane, u1, v1, u2, v2 per quad
+    private final IntArrayList quads = new IntArrayList();
+    // x1, y1, z1, x2, y2, z2 per line
+    private final IntArrayList lines = new IntArrayList();
+
+    private final int originX, originY, originZ;
+
+    private Renderer3D renderer;
+    private boolean uploaded;
+    private int sideColor, lineColor;
+    private final Color meshColor = new Color();
+
+    private VoxelMesh(int originX, int originY, int originZ) {
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+    }
+
+    /** Builds the geometry, vertices are stored relative to the origin to keep float precision at large coordinates. */
+    public static VoxelMesh build(VoxelSet voxels, int originX, int originY, int originZ) {
+        VoxelMesh mesh = new VoxelMesh(originX, originY, originZ);
+
+        GreedyMesher mesher = new GreedyMesher();
+        GreedyMesher.Output output = new GreedyMesher.Output() {
+            @Override
+            public void quad(int axis, int plane, int u1, int v1, int u2, int v2) {
+                mesh.quads.add(axis);
+                mesh.quads.add(plane);
+                mesh.quads.add(u1);
+                mesh.quads.add(v1);
+                mesh.quads.add(u2);
+                mesh.quads.add(v2);
+            }
+
+            @Override
+            public void line(int x1, int y1, int z1, int x2, int y2, int z2) {
+                mesh.lines.add(x1);
+                mesh.lines.add(y1);
+                mesh.lines.add(z1);
+                mesh.lines.add(x2);
+                mesh.lines.add(y2);
+                mesh.lines.add(z2);
+            }
+        };
+
+        voxels.forEachSection((x, y, z) -> mesher.mesh(x, y, z, voxels::contains, output));
+
+        return mesh;
+    }
+
+    public boolean isEmpty() {
+        return quads.isEmpty();
+    }
+
+    /** Queues the cached meshes, must be called on the render thread. */
+    public void render(RenderQueue queue, SettingColor sideColor, SettingColor lineColor, ShapeMode mode) {
+        int side = sideColor.getMeshColor(meshColor).getPacked();
+        int line = lineColor.getMeshColor(meshColor).getPacked();
+
+        if (!uploaded || side != this.sideColor || line != this.lineColor) {
+            upload(side, line);
+        }
+
+        renderer.triangles.tint = sideColor.getMeshTint();
+        renderer.lines.tint = lineColor.getMeshTint();
+
+        if (mode.sides()) queue.submit(renderer.triangles);
+        if (mode.lines()) queue.submit(renderer.lines);
+    }
+
+    private void upload(int side, int line) {
+        if (renderer == null) renderer = new Renderer3D(Mesh.Usage.Static);
+
+        renderer.begin(originX, originY, originZ);
+        int[] pos = new int[3];
+
+        Color sideColor = new Color(side);
+        Color lineColor = new Color(line);
+
+        for (int i = 0; i < quads.size(); i += 6) {
+            GreedyMesher.quad(renderer, quads.getInt(i), quads.getInt(i + 1), quads.getInt(i + 2), quads.getInt(i + 3), quads.getInt(i + 4), quads.getInt(i + 5), pos, sideColor);
+        }
+
+        for (int i = 0; i < lines.size(); i += 6) {
+            renderer.line(lines.getInt(i), lines.getInt(i + 1), lines.getInt(i + 2), lines.getInt(i + 3), lines.getInt(i + 4), lines.getInt(i + 5), lineColor);
+        }
+
+        renderer.end();
+
+        uploaded = true;
+        this.sideColor = side;
+        this.lineColor = line;
+    }
+
+    /** Releases the GPU buffers, can be called from any thread. */
+    public void destroy() {
+        Renderer3D renderer = this.renderer;
+
+        this.renderer = null;
+        uploaded = false;
+
+        if (renderer != null) RenderSystem.recordRenderCall(renderer::destroy);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.render.marker;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * Set of block positions stored as one bitset per 16x16x16 section. Adding, removing and checking a position are
+ * constant time and neighbouring positions usually share the last looked up section.
+ */
+public class VoxelSet {
+    private static final int SECTION_WORDS = 16 * 16 * 16 / 64;
+
+    private final Long2ObjectOpenHashMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+    private int size;
+
+    // Last looked up section
+    private long lastKey = Long.MAX_VALUE;
+    private long[] lastSection;
+
+    /** @return true if the position wasn't in the set yet */
+    public boolean add(int x, int y, int z) {
+        long[] section = getSection(x >> 4, y >> 4, z >> 4, true);
+
+        int i = index(x, y, z);
+        long bit = 1L << i;
+        if ((section[i >> 6] & bit) != 0) return false;
+
+        section[i >> 6] |= bit;
+        size++;
+        return true;
+    }
+
+    /** @return true if the position was in the set */
+    public boolean remove(int x, int y, int z) {
+        long[] section = getSection(x >> 4, y >> 4, z >> 4, false);
+        if (section == null) return false;
+
+        int i = index(x, y, z);
+        long bit = 1L << i;
+        if ((section[i >> 6] & bit) == 0) return false;
+
+        section[i >> 6] &= ~bit;
+        size--;
+        return true;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        long[] section = getSection(x >> 4, y >> 4, z >> 4, false);
+        if (section == null) return false;
+
+        int i = index(x, y, z);
+        return (section[i >> 6] & (1L << i)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        sections.clear();
+        size = 0;
+
+        lastKey = Long.MAX_VALUE;
+        lastSection = null;
+    }
+
+    public void forEach(VoxelConsumer consumer) {
+        for (Long2ObjectMap.Entry<long[]> entry : sections.long2ObjectEntrySet()) {
+            long key = entry.getLongKey();
+            int baseX = ChunkSectionPos.unpackX(key) << 4;
+            int baseY = ChunkSectionPos.unpackY(key) << 4;
+            int baseZ = ChunkSectionPos.unpackZ(key) << 4;
+
+            long[] section = entry.getValue();
+
+            for (int w = 0; w < SECTION_WORDS; w++) {
+                long word = section[w];
+
+                while (word != 0) {
+                    int i = (w << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+
+                    consumer.accept(baseX + (i & 15), baseY + (i >> 8), baseZ + ((i >> 4) & 15));
+                }
+            }
+        }
+    }
+
+    /** Calls the consumer with the section coordinates of every section which contains at least one position. */
+    void forEachSection(VoxelConsumer consumer) {
+        for (long key : sections.keySet()) {
+            consumer.accept(ChunkSectionPos.unpackX(key), ChunkSectionPos.unpackY(key), ChunkSectionPos.unpackZ(key));
+        }
+    }
+
+    private long[] getSection(int sectionX, int sectionY, int sectionZ, boolean create) {
+        long key = ChunkSectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (key == lastKey) return lastSection;
+
+        long[] section = sections.get(key);
+
+        if (section == null) {
+            if (!create) return null;
+
+            section = new long[SECTION_WORDS];
+            sections.put(key, section);
+        }
+
+        lastKey = key;
+        lastSection = section;
+
+        return section;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    @FunctionalInterface
+    public interface VoxelConsumer {
+        void accept(int x, int y, int z);
+    }
+}
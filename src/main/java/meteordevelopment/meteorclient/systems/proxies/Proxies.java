@@ -38,14 +38,14 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
         if (proxies.isEmpty()) proxy.enabled.set(true);
 
         proxies.add(proxy);
-        save();
+        markDirty();
 
         return true;
     }
 
     public void remove(Proxy proxy) {
         if (proxies.remove(proxy)) {
-            save();
+            markDirty();
         }
     }
 
@@ -63,7 +63,7 @@ public class Proxies extends System<Proxies> implements Iterable<Proxy> {
         }
 
         proxy.enabled.set(enabled);
-        save();
+        markDirty();
     }
 
     public boolean isEmpty() {
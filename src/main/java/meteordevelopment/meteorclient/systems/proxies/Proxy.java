@@ -14,7 +14,7 @@ import net.minecraft.nbt.NbtElement;
 import java.util.Objects;
 
 public class Proxy implements ISerializable<Proxy> {
-    public final Settings settings = new Settings();
+    public final Settings settings = new Settings(Proxies.class);
 
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
     private final SettingGroup sgOptional = settings.createGroup("Optional");
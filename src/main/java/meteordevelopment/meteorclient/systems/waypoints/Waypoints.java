@@ -29,6 +29,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
@@ -49,8 +50,26 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
         return Systems.get(Waypoints.class);
     }
 
+    // Icons decoded during startup, uploaded in init
+    private static CompletableFuture<Map<String, NativeImage>> iconsTask;
+
     @Override
     public void init() {
+        Map<String, NativeImage> images = iconsTask != null ? iconsTask.join() : readIcons();
+        iconsTask = null;
+
+        images.forEach((name, image) -> icons.put(name, new NativeImageBackedTexture(image)));
+    }
+
+    /** Uses the icons decoded by the task in {@link #init()} instead of decoding them on the render thread. */
+    public static void setIconsTask(CompletableFuture<Map<String, NativeImage>> task) {
+        iconsTask = task;
+    }
+
+    /** Copies missing builtin icons and decodes all icons, can be called from any thread. */
+    public static Map<String, NativeImage> readIcons() {
+        Map<String, NativeImage> images = new HashMap<>();
+
         File iconsFolder = new File(new File(MeteorClient.FOLDER, "waypoints"), "icons");
         iconsFolder.mkdirs();
 
@@ -60,20 +79,21 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
         }
 
         File[] files = iconsFolder.listFiles();
-        if (files == null) return;
+        if (files == null) return images;
 
         for (File file : files) {
             if (file.getName().endsWith(".png")) {
-                try {
+                try (InputStream in = new FileInputStream(file)) {
                     String name = file.getName().replace(".png", "");
-                    AbstractTexture texture = new NativeImageBackedTexture(NativeImage.read(new FileInputStream(file)));
-                    icons.put(name, texture);
+                    images.put(name, NativeImage.read(in));
                 }
                 catch (IOException e) {
                     MeteorClient.LOG.error("Failed to read a waypoint icon", e);
                 }
             }
         }
+
+        return images;
     }
 
     /**
@@ -82,19 +102,19 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
      */
     public boolean add(Waypoint waypoint) {
         if (waypoints.contains(waypoint)) {
-            save();
+            markDirty();
             return true;
         }
 
         waypoints.add(waypoint);
-        save();
+        markDirty();
 
         return false;
     }
 
     public boolean remove(Waypoint waypoint) {
         boolean removed = waypoints.remove(waypoint);
-        if (removed) save();
+        if (removed) markDirty();
 
         return removed;
     }
@@ -145,7 +165,7 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
         return new WaypointIterator();
     }
 
-    private void copyIcon(File file) {
+    private static void copyIcon(File file) {
         String path = "/assets/" + MeteorClient.MOD_ID + "/textures/icons/waypoints/" + file.getName();
         InputStream in = Waypoints.class.getResourceAsStream(path);
 
@@ -191,7 +211,7 @@ public class Waypoints extends System<Waypoints> implements Iterable<Waypoint> {
         @Override
         public void remove() {
             it.remove();
-            save();
+            markDirty();
         }
     }
 }
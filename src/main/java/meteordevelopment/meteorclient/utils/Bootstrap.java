@@ -0,0 +1,141 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils;
+
+import meteordevelopment.meteorclient.MeteorClient;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the startup as a graph of tasks. Main tasks run one after another on the calling thread, which owns the GL
+ * context, while async tasks only doing I/O run on a small pool as soon as their dependencies are done. When
+ * finished a trace with the timing of every task and the critical path is logged.
+ */
+public class Bootstrap {
+    private final ExecutorService executor;
+    private final List<Task<?>> tasks = Collections.synchronizedList(new ArrayList<>());
+    private final long start = System.nanoTime();
+
+    private Task<?> lastMain;
+
+    public Bootstrap() {
+        int threads = Math.clamp(Runtime.getRuntime().availableProcessors() - 1, 1, 4);
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.setName("Meteor-Bootstrap-" + threadNumber.getAndIncrement());
+            return thread;
+        });
+    }
+
+    /** Runs the work on the pool once all dependencies are done, it must not touch GL or game state. */
+    public <T> Task<T> async(String name, Supplier<T> work, Task<?>... dependencies) {
+        Task<T> task = new Task<>(name, List.of(dependencies));
+        tasks.add(task);
+
+        CompletableFuture<?>[] futures = Arrays.stream(dependencies).map(Task::future).toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).thenApplyAsync(unused -> task.run(work), executor).whenComplete((value, throwable) -> {
+            if (throwable != null) task.future.completeExceptionally(throwable);
+            else task.future.complete(value);
+        });
+
+        return task;
+    }
+
+    /** Waits for the dependencies and runs the work on the calling thread after the previous main task. */
+    public Task<Void> main(String name, Runnable work, Task<?>... dependencies) {
+        List<Task<?>> allDependencies = new ArrayList<>(dependencies.length + 1);
+        if (lastMain != null) allDependencies.add(lastMain);
+        allDependencies.addAll(List.of(dependencies));
+
+        Task<Void> task = new Task<>(name, allDependencies);
+        tasks.add(task);
+
+        for (Task<?> dependency : dependencies) dependency.join();
+
+        task.future.complete(task.run(() -> {
+            work.run();
+            return null;
+        }));
+
+        lastMain = task;
+        return task;
+    }
+
+    /** Stops the pool and logs the trace. */
+    public void finish() {
+        executor.shutdown();
+
+        long end = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
+
+        List<Task<?>> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingLong(task -> task.start));
+
+        for (Task<?> task : sorted) {
+            sb.append("\n  %7.1f - %7.1f ms  %-32s %s".formatted(toMillis(task.start), toMillis(task.end), task.name, task.thread));
+        }
+
+        // Walk back from the task which finished last, always following the dependency which finished last
+        List<String> criticalPath = new ArrayList<>();
+        Task<?> task = sorted.stream().max(Comparator.comparingLong(t -> t.end)).orElse(null);
+
+        while (task != null) {
+            criticalPath.addFirst("%s (%.1f ms)".formatted(task.name, (task.end - task.start) / 1_000_000.0));
+            task = task.dependencies.stream().max(Comparator.comparingLong(t -> t.end)).orElse(null);
+        }
+
+        sb.append("\n  Critical path: ").append(String.join(" -> ", criticalPath));
+
+        MeteorClient.LOG.info("Bootstrap finished in {} milliseconds.{}", (end - start) / 1_000_000, sb);
+    }
+
+    private double toMillis(long time) {
+        return (time - start) / 1_000_000.0;
+    }
+
+    public static class Task<T> {
+        private final String name;
+        private final List<Task<?>> dependencies;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private volatile long start, end;
+        private volatile String thread;
+
+        private Task(String name, List<Task<?>> dependencies) {
+            this.name = name;
+            this.dependencies = dependencies;
+        }
+
+        private T run(Supplier<T> work) {
+            thread = Thread.currentThread().getName();
+            start = System.nanoTime();
+
+            try {
+                return work.get();
+            } finally {
+                end = System.nanoTime();
+            }
+        }
+
+        public CompletableFuture<T> future() {
+            return future;
+        }
+
+        /** Waits for the task and returns its result, rethrowing its exception. */
+        public T join() {
+            return future.join();
+        }
+    }
+}
@@ -5,64 +5,140 @@
 
 package meteordevelopment.meteorclient.utils;
 
+import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.addons.AddonManager;
 import meteordevelopment.meteorclient.addons.MeteorAddon;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Runs {@link PreInit} and {@link PostInit} methods. The methods are read from the index generated at compile time
+ * by the init index annotation processor, addons which don't ship an index are scanned with Reflections instead.
+ */
 public class ReflectInit {
+    private static final String INDEX = "META-INF/meteor-init.idx";
+
+    private static final List<IndexEntry> index = new ArrayList<>();
     private static final List<Reflections> reflections = new ArrayList<>();
 
     private ReflectInit() {
     }
 
     public static void registerPackages() {
+        List<IndexEntry> entries = readIndex();
+
         for (MeteorAddon addon : AddonManager.ADDONS) {
             try {
-                add(addon);
+                add(addon, entries);
             } catch (AbstractMethodError e) {
                 throw new RuntimeException("Addon \"%s\" is too old and cannot be ran.".formatted(addon.name), e);
             }
         }
     }
 
-    private static void add(MeteorAddon addon) {
+    private static void add(MeteorAddon addon, List<IndexEntry> entries) {
         String pkg = addon.getPackage();
         if (pkg == null || pkg.isBlank()) return;
-        reflections.add(new Reflections(pkg, Scanners.MethodsAnnotated));
+
+        boolean indexed = false;
+
+        for (IndexEntry entry : entries) {
+            if (entry.owner.startsWith(pkg + ".")) {
+                index.add(entry);
+                indexed = true;
+            }
+        }
+
+        if (!indexed) reflections.add(new Reflections(pkg, Scanners.MethodsAnnotated));
+    }
+
+    private static List<IndexEntry> readIndex() {
+        List<IndexEntry> entries = new ArrayList<>();
+
+        try {
+            Enumeration<URL> urls = ReflectInit.class.getClassLoader().getResources(INDEX);
+
+            while (urls.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    for (String line; (line = reader.readLine()) != null; ) {
+                        if (line.isBlank()) continue;
+
+                        String[] parts = line.split(" ");
+                        entries.add(new IndexEntry(parts[0], parts[1], parts[2], Arrays.copyOfRange(parts, 3, parts.length)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Failed to read the init index.", e);
+        }
+
+        return entries;
     }
 
     public static void init(Class<? extends Annotation> annotation) {
+        long start = System.nanoTime();
+
+        // Collect the tasks of all addons, so dependencies between addons are respected too
+        Map<String, List<InitTask>> byClass = new LinkedHashMap<>();
+
+        for (IndexEntry entry : index) {
+            if (!entry.annotation.equals(annotation.getSimpleName())) continue;
+            byClass.computeIfAbsent(entry.owner, owner -> new ArrayList<>()).add(new InitTask(entry.resolve(), entry.dependencies));
+        }
+
         for (Reflections reflection : reflections) {
             Set<Method> initTasks = reflection.getMethodsAnnotatedWith(annotation);
-            if (initTasks == null) return;
-
-            Map<Class<?>, List<Method>> byClass = initTasks.stream().collect(Collectors.groupingBy(Method::getDeclaringClass));
-            Set<Method> left = new HashSet<>(initTasks);
+            if (initTasks == null) continue;
 
-            for (Method m; (m = left.stream().findAny().orElse(null)) != null; ) {
-                reflectInit(m, annotation, left, byClass);
+            for (Method method : initTasks) {
+                InitTask task = new InitTask(method, getDependencies(method, annotation));
+                byClass.computeIfAbsent(method.getDeclaringClass().getName(), owner -> new ArrayList<>()).add(task);
             }
         }
+
+        // Sort the tasks once so every dependency runs before the tasks depending on it
+        List<InitTask> sorted = new ArrayList<>();
+        Set<InitTask> visited = new HashSet<>();
+
+        for (List<InitTask> tasks : byClass.values()) {
+            for (InitTask task : tasks) sort(task, byClass, visited, sorted);
+        }
+
+        // Run the tasks
+        long[] times = new long[sorted.size()];
+
+        for (int i = 0; i < sorted.size(); i++) {
+            long taskStart = System.nanoTime();
+            reflectInit(sorted.get(i).method, annotation);
+            times[i] = System.nanoTime() - taskStart;
+        }
+
+        report(annotation, sorted, times, System.nanoTime() - start);
     }
 
-    private static <T extends Annotation> void reflectInit(Method task, Class<T> annotation, Set<Method> left, Map<Class<?>, List<Method>> byClass) {
-        left.remove(task);
+    private static void sort(InitTask task, Map<String, List<InitTask>> byClass, Set<InitTask> visited, List<InitTask> sorted) {
+        if (!visited.add(task)) return;
 
-        for (Class<?> clazz : getDependencies(task, annotation)) {
-            for (Method m : byClass.getOrDefault(clazz, Collections.emptyList())) {
-                if (left.contains(m)) {
-                    reflectInit(m, annotation, left, byClass);
-                }
+        for (String dependency : task.dependencies) {
+            for (InitTask t : byClass.getOrDefault(dependency, Collections.emptyList())) {
+                sort(t, byClass, visited, sorted);
             }
         }
 
+        sorted.add(task);
+    }
+
+    private static void reflectInit(Method task, Class<? extends Annotation> annotation) {
         try {
             task.invoke(null);
         } catch (IllegalAccessException | InvocationTargetException e) {
@@ -72,13 +148,38 @@ public class ReflectInit {
         }
     }
 
-    private static <T extends Annotation> Class<?>[] getDependencies(Method task, Class<T> annotation) {
+    private static void report(Class<? extends Annotation> annotation, List<InitTask> tasks, long[] times, long total) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Method method = tasks.get(i).method;
+            sb.append("\n  %s.%s: %.2f ms".formatted(method.getDeclaringClass().getSimpleName(), method.getName(), times[i] / 1_000_000.0));
+        }
+
+        MeteorClient.LOG.info("Ran {} @{} tasks in {} milliseconds.{}", tasks.size(), annotation.getSimpleName(), total / 1_000_000, sb);
+    }
+
+    private static <T extends Annotation> String[] getDependencies(Method task, Class<T> annotation) {
         T init = task.getAnnotation(annotation);
 
-        return switch (init) {
+        Class<?>[] dependencies = switch (init) {
             case PreInit pre -> pre.dependencies();
             case PostInit post -> post.dependencies();
             default -> new Class<?>[]{};
         };
+
+        return Arrays.stream(dependencies).map(Class::getName).toArray(String[]::new);
+    }
+
+    private record InitTask(Method method, String[] dependencies) {}
+
+    private record IndexEntry(String annotation, String owner, String method, String[] dependencies) {
+        public Method resolve() {
+            try {
+                return Class.forName(owner, false, ReflectInit.class.getClassLoader()).getDeclaredMethod(method);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new IllegalStateException("Init index entry '%s.%s' doesn't exist, the index is outdated".formatted(owner, method), e);
+            }
+        }
     }
 }
@@ -14,6 +14,9 @@ import java.util.Objects;
 import static org.lwjgl.glfw.GLFW.*;
 
 public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
+    // Incremented whenever any keybind changes so indices know when to rebuild
+    private static int changes;
+
     private boolean isKey;
     private int value;
     private int modifiers;
@@ -38,6 +41,15 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         return new Keybind(false, button, 0);
     }
 
+    public static int getChanges() {
+        return changes;
+    }
+
+    /** Needs to be called when a keybind is replaced instead of being modified. */
+    public static void markChanged() {
+        changes++;
+    }
+
     public int getValue() {
         return value;
     }
@@ -58,6 +70,8 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         this.isKey = isKey;
         this.value = value;
         this.modifiers = modifiers;
+
+        changes++;
     }
 
     @Override
@@ -66,6 +80,8 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         this.value = value.value;
         this.modifiers = value.modifiers;
 
+        changes++;
+
         return this;
     }
 
@@ -171,6 +187,7 @@ public class Keybind implements ISerializable<Keybind>, ICopyable<Keybind> {
         value = tag.getInt("value");
         modifiers = tag.getInt("modifiers");
 
+        changes++;
         return this;
     }
 }
@@ -8,12 +8,14 @@ package meteordevelopment.meteorclient.utils.misc;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.mixin.ClientPlayerInteractionManagerAccessor;
 import meteordevelopment.meteorclient.mixin.MinecraftClientAccessor;
+import meteordevelopment.meteorclient.renderer.RenderStats;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.PreInit;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
+import meteordevelopment.meteorclient.utils.player.InventoryIndex;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.world.Dimension;
 import meteordevelopment.meteorclient.utils.world.TickRate;
@@ -85,6 +87,10 @@ public class MeteorStarscript {
             .set("version", MeteorClient.VERSION != null ? (MeteorClient.DEV_BUILD.isEmpty() ? MeteorClient.VERSION.toString() : MeteorClient.VERSION + " " + MeteorClient.DEV_BUILD) : "")
             .set("modules", () -> Value.number(Modules.get().getAll().size()))
             .set("active_modules", () -> Value.number(Modules.get().getActive().size()))
+            .set("draw_calls", () -> Value.number(RenderStats.getDrawCalls()))
+            .set("state_changes", () -> Value.number(RenderStats.getStateChanges()))
+            .set("text_layout_hits", () -> Value.number(RenderStats.getTextLayoutHits()))
+            .set("text_layout_misses", () -> Value.number(RenderStats.getTextLayoutMisses()))
             .set("is_module_active", MeteorStarscript::isModuleActive)
             .set("get_module_info", MeteorStarscript::getModuleInfo)
             .set("get_module_setting", MeteorStarscript::getModuleSetting)
@@ -386,13 +392,7 @@ public class MeteorStarscript {
         Item item = Registries.ITEM.get(id);
         if (item == Items.AIR || mc.player == null) return Value.number(0);
 
-        int count = 0;
-        for (int i = 0; i < mc.player.getInventory().size(); i++) {
-            ItemStack itemStack = mc.player.getInventory().getStack(i);
-            if (itemStack.getItem() == item) count += itemStack.getCount();
-        }
-
-        return Value.number(count);
+        return Value.number(InventoryIndex.count(item));
     }
 
     private static Value getMeteorPrefix() {
@@ -0,0 +1,54 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.misc;
+
+import net.minecraft.util.collection.IndexedIterable;
+
+import java.util.Collection;
+
+/**
+ * Immutable set of registry entries stored as a bitset indexed by their raw registry ids. Membership checks are a
+ * single array lookup which makes it safe and cheap to query from render and chunk meshing threads.
+ */
+public class RegistryBitSet<T> {
+    private final IndexedIterable<T> registry;
+    private final long[] words;
+    private final int size;
+
+    public RegistryBitSet(IndexedIterable<T> registry, Collection<? extends T> values) {
+        this.registry = registry;
+        this.words = new long[(registry.size() + 63) >> 6];
+
+        int size = 0;
+
+        for (T value : values) {
+            int id = registry.getRawId(value);
+            if (id < 0 || contains(id)) continue;
+
+            words[id >> 6] |= 1L << id;
+            size++;
+        }
+
+        this.size = size;
+    }
+
+    public boolean contains(T value) {
+        return value != null && contains(registry.getRawId(value));
+    }
+
+    public boolean contains(int rawId) {
+        int i = rawId >> 6;
+        return rawId >= 0 && i < words.length && (words[i] & (1L << rawId)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.misc.input;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.utils.misc.Keybind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Groups values by the key or mouse button their keybind is bound to so an input event only has to check the values
+ * bound to it. The index is rebuilt lazily after any {@link Keybind} changed, lookups don't allocate.
+ */
+public class KeybindIndex<T> {
+    private final Function<T, Keybind> keybindGetter;
+    private final List<T> values = new ArrayList<>();
+
+    private Int2ObjectMap<List<T>> buckets = new Int2ObjectOpenHashMap<>();
+    private int changes;
+    private boolean dirty = true;
+
+    public KeybindIndex(Function<T, Keybind> keybindGetter) {
+        this.keybindGetter = keybindGetter;
+    }
+
+    public void add(T value) {
+        values.add(value);
+        dirty = true;
+    }
+
+    public void remove(T value) {
+        if (values.remove(value)) dirty = true;
+    }
+
+    public void clear() {
+        values.clear();
+        dirty = true;
+    }
+
+    /**
+     * @return values bound to the key or button in the order they were added, their modifiers still need to be
+     * checked with {@link Keybind#matches(boolean, int, int)}. The returned list must not be modified.
+     */
+    public List<T> get(boolean isKey, int value) {
+        if (dirty || changes != Keybind.getChanges()) rebuild();
+
+        List<T> bucket = buckets.get(code(isKey, value));
+        return bucket != null ? bucket : Collections.emptyList();
+    }
+
+    private void rebuild() {
+        // A new map is built so callers iterating an old bucket aren't affected when a bind changes meanwhile
+        Int2ObjectMap<List<T>> buckets = new Int2ObjectOpenHashMap<>();
+
+        for (T value : values) {
+            Keybind keybind = keybindGetter.apply(value);
+            if (!keybind.isSet()) continue;
+
+            buckets.computeIfAbsent(code(keybind.isKey(), keybind.getValue()), k -> new ArrayList<>(1)).add(value);
+        }
+
+        this.buckets = buckets;
+        changes = Keybind.getChanges();
+        dirty = false;
+    }
+
+    private static int code(boolean isKey, int value) {
+        return (value << 1) | (isKey ? 1 : 0);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.network;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.orbit.ICancellable;
+import net.minecraft.network.packet.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Packet listeners which are only invoked for the packet classes they are registered for, instead of receiving every
+ * {@link PacketEvent} through the event bus and checking the packet with instanceof. Listeners registered for a super
+ * class are also invoked for every known subclass from {@link PacketUtils}. They run before the event bus listeners.
+ */
+public class PacketListeners {
+    public static final Listeners<PacketEvent.Receive> RECEIVE = new Listeners<>(PacketUtils::getS2CPackets);
+    public static final Listeners<PacketEvent.Send> SEND = new Listeners<>(PacketUtils::getC2SPackets);
+    public static final Listeners<PacketEvent.Sent> SENT = new Listeners<>(PacketUtils::getC2SPackets);
+
+    private PacketListeners() {
+    }
+
+    public static class Listeners<E> {
+        private final Supplier<Set<Class<? extends Packet<?>>>> knownPackets;
+        private final List<Listener<E>> listeners = new ArrayList<>();
+
+        // Rebuilt on every change so dispatching from the netty thread doesn't need to lock
+        private volatile Reference2ObjectMap<Class<?>, Consumer<E>[]> byClass = new Reference2ObjectOpenHashMap<>();
+
+        private Listeners(Supplier<Set<Class<? extends Packet<?>>>> knownPackets) {
+            this.knownPackets = knownPackets;
+        }
+
+        public synchronized void add(Class<? extends Packet<?>> packetClass, Consumer<E> listener) {
+            listeners.add(new Listener<>(packetClass, listener));
+            rebuild();
+        }
+
+        public synchronized void remove(Class<? extends Packet<?>> packetClass, Consumer<E> listener) {
+            if (listeners.removeIf(l -> l.packetClass == packetClass && l.listener == listener)) rebuild();
+        }
+
+        /** @return true if any listener was invoked */
+        public boolean dispatch(Packet<?> packet, E event) {
+            Consumer<E>[] consumers = byClass.get(packet.getClass());
+            if (consumers == null) return false;
+
+            for (Consumer<E> consumer : consumers) {
+                consumer.accept(event);
+                if (event instanceof ICancellable cancellable && cancellable.isCancelled()) break;
+            }
+
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void rebuild() {
+            Reference2ObjectMap<Class<?>, List<Consumer<E>>> lists = new Reference2ObjectOpenHashMap<>();
+
+            for (Listener<E> listener : listeners) {
+                lists.computeIfAbsent(listener.packetClass, k -> new ArrayList<>()).add(listener.listener);
+
+                for (Class<? extends Packet<?>> packetClass : knownPackets.get()) {
+                    if (packetClass != listener.packetClass && listener.packetClass.isAssignableFrom(packetClass)) {
+                        lists.computeIfAbsent(packetClass, k -> new ArrayList<>()).add(listener.listener);
+                    }
+                }
+            }
+
+            Reference2ObjectMap<Class<?>, Consumer<E>[]> byClass = new Reference2ObjectOpenHashMap<>(lists.size());
+            for (Reference2ObjectMap.Entry<Class<?>, List<Consumer<E>>> entry : lists.reference2ObjectEntrySet()) {
+                byClass.put(entry.getKey(), entry.getValue().toArray(new Consumer[0]));
+            }
+
+            this.byClass = byClass;
+        }
+    }
+
+    private record Listener<E>(Class<? extends Packet<?>> packetClass, Consumer<E> listener) {}
+}
@@ -9,6 +9,7 @@ import meteordevelopment.meteorclient.mixininterface.IClientPlayerInteractionMan
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.slot.SlotActionType;
 
@@ -76,16 +77,19 @@ public class InvUtils {
     // Finding items
 
     public static FindItemResult findEmpty() {
-        return find(ItemStack::isEmpty);
+        return find(Items.AIR);
     }
 
     public static FindItemResult findInHotbar(Item... items) {
-        return findInHotbar(itemStack -> {
-            for (Item item : items) {
-                if (itemStack.getItem() == item) return true;
-            }
-            return false;
-        });
+        if (testInOffHand(items)) {
+            return new FindItemResult(SlotUtils.OFFHAND, mc.player.getOffHandStack().getCount());
+        }
+
+        if (testInMainHand(items)) {
+            return new FindItemResult(mc.player.getInventory().selectedSlot, mc.player.getMainHandStack().getCount());
+        }
+
+        return find(InventoryIndex.slotRange(SlotUtils.HOTBAR_START, SlotUtils.HOTBAR_END), items);
     }
 
     public static FindItemResult findInHotbar(Predicate<ItemStack> isGood) {
@@ -101,12 +105,42 @@ public class InvUtils {
     }
 
     public static FindItemResult find(Item... items) {
-        return find(itemStack -> {
-            for (Item item : items) {
-                if (itemStack.getItem() == item) return true;
+        return find(-1L, items);
+    }
+
+    /** Looks the items up in the {@link InventoryIndex} and only visits the slots holding them. */
+    private static FindItemResult find(long range, Item... items) {
+        if (mc.player == null) return new FindItemResult(0, 0);
+
+        long mask = 0;
+        for (Item item : items) mask |= InventoryIndex.getSlots(item);
+        mask &= range;
+
+        int slot = -1, count = 0;
+
+        for (; mask != 0; mask &= mask - 1) {
+            int i = Long.numberOfTrailingZeros(mask);
+            ItemStack stack = mc.player.getInventory().getStack(i);
+
+            // The stack was used up or replaced since the index was updated
+            if (!isAnyOf(stack, items)) {
+                InventoryIndex.markDirty();
+                continue;
             }
-            return false;
-        });
+
+            if (slot == -1) slot = i;
+            count += stack.getCount();
+        }
+
+        return new FindItemResult(slot, count);
+    }
+
+    private static boolean isAnyOf(ItemStack stack, Item[] items) {
+        for (Item item : items) {
+            if (stack.getItem() == item) return true;
+        }
+
+        return false;
     }
 
     public static FindItemResult find(Predicate<ItemStack> isGood) {
@@ -132,6 +166,18 @@ public class InvUtils {
     }
 
     public static FindItemResult findFastestTool(BlockState state) {
+        // Mining speed only depends on the item and its components, so the result stays valid until the hotbar changes
+        int slot = InventoryIndex.getFastestTool(state);
+
+        if (slot == -2) {
+            slot = computeFastestTool(state);
+            InventoryIndex.setFastestTool(state, slot);
+        }
+
+        return new FindItemResult(slot, 1);
+    }
+
+    private static int computeFastestTool(BlockState state) {
         float bestScore = 1;
         int slot = -1;
 
@@ -146,7 +192,7 @@ public class InvUtils {
             }
         }
 
-        return new FindItemResult(slot, 1);
+        return slot;
     }
 
     // Interactions
@@ -0,0 +1,165 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.player;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.packets.ContainerSlotUpdateEvent;
+import meteordevelopment.meteorclient.events.packets.InventoryEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Keeps a bitmask of the player inventory slots holding every item, empty slots are indexed as air. Slots are only
+ * compared against the last seen stacks once something could have changed them, so lookups neither scan the
+ * inventory nor test predicates. Counts are always read from the live stacks of the matching slots.
+ */
+public class InventoryIndex {
+    private static final Reference2LongOpenHashMap<Item> slots = new Reference2LongOpenHashMap<>();
+    private static final Reference2IntOpenHashMap<BlockState> fastestTools = new Reference2IntOpenHashMap<>();
+
+    private static PlayerInventory inventory;
+    private static ItemStack[] stacks = new ItemStack[0];
+    private static Item[] items = new Item[0];
+    private static boolean dirty = true;
+
+    static {
+        fastestTools.defaultReturnValue(-2);
+    }
+
+    private InventoryIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(InventoryIndex.class);
+    }
+
+    // Stacks can also change in place or through paths without an event, so everything is checked once every tick
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        dirty = true;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onContainerSlotUpdate(ContainerSlotUpdateEvent event) {
+        dirty = true;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onInventory(InventoryEvent event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+    }
+
+    /** Makes the next lookup compare the slots again, call after changing the inventory locally. */
+    public static void markDirty() {
+        dirty = true;
+    }
+
+    /** @return bitmask of the inventory slots holding the item, bit {@code i} is {@link PlayerInventory#getStack(int)} {@code i} */
+    public static long getSlots(Item item) {
+        update();
+        return slots.getLong(item);
+    }
+
+    /** @return total count of the item in the whole inventory */
+    public static int count(Item item) {
+        long mask = getSlots(item);
+        int count = 0;
+
+        for (; mask != 0; mask &= mask - 1) {
+            ItemStack stack = inventory.getStack(Long.numberOfTrailingZeros(mask));
+            if (stack.getItem() == item) count += stack.getCount();
+        }
+
+        return count;
+    }
+
+    /** @return bitmask of the slots from {@code start} to {@code end}, both inclusive */
+    public static long slotRange(int start, int end) {
+        if (end < start) return 0;
+
+        long mask = end >= 63 ? -1L : (1L << (end + 1)) - 1;
+        return mask & (-1L << start);
+    }
+
+    /** @return cached hotbar slot of the fastest tool for the state, -2 if it isn't known since the hotbar last changed */
+    public static int getFastestTool(BlockState state) {
+        update();
+        return fastestTools.getInt(state);
+    }
+
+    public static void setFastestTool(BlockState state, int slot) {
+        fastestTools.put(state, slot);
+    }
+
+    private static void update() {
+        if (mc.player == null) {
+            if (inventory != null) clear();
+            return;
+        }
+
+        PlayerInventory inv = mc.player.getInventory();
+
+        // The inventory is recreated together with the player when respawning or changing dimensions
+        if (inv != inventory) {
+            clear();
+
+            inventory = inv;
+            stacks = new ItemStack[Math.min(inv.size(), 64)];
+            items = new Item[stacks.length];
+        }
+        else if (!dirty) return;
+
+        dirty = false;
+
+        for (int i = 0; i < stacks.length; i++) {
+            ItemStack stack = inv.getStack(i);
+            Item item = stack.getItem();
+
+            if (stack == stacks[i] && item == items[i]) continue;
+
+            if (items[i] != null) {
+                long mask = slots.getLong(items[i]) & ~(1L << i);
+
+                if (mask == 0) slots.removeLong(items[i]);
+                else slots.put(items[i], mask);
+            }
+
+            slots.put(item, slots.getLong(item) | (1L << i));
+
+            stacks[i] = stack;
+            items[i] = item;
+
+            if (SlotUtils.isHotbar(i)) fastestTools.clear();
+        }
+    }
+
+    private static void clear() {
+        slots.clear();
+        fastestTools.clear();
+
+        inventory = null;
+        stacks = new ItemStack[0];
+        items = new Item[0];
+        dirty = true;
+    }
+}
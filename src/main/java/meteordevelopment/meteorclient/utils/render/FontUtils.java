@@ -141,7 +141,15 @@ public class FontUtils {
 
         FontInfo info = font.info;
 
-        FontFamily family = Fonts.getFamily(info.family());
+        FontFamily family = null;
+
+        for (FontFamily f : fontList) {
+            if (f.getName().equalsIgnoreCase(info.family())) {
+                family = f;
+                break;
+            }
+        }
+
         if (family == null) {
             family = new FontFamily(info.family());
             fontList.add(family);
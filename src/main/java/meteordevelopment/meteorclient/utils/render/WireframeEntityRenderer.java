@@ -64,7 +64,7 @@ public class WireframeEntityRenderer {
         matrices.push();
         matrices.scale((float) scale, (float) scale, (float) scale);
         renderer.render(state, matrices, MyVertexConsumerProvider.INSTANCE, 15);
-        matrices.push();
+        matrices.pop();
     }
 
     private static class MyVertexConsumerProvider implements VertexConsumerProvider {
@@ -118,7 +118,7 @@ public class WireframeEntityRenderer {
                     renderer.line(offsetX + xs[0], offsetY + ys[0], offsetZ + zs[0], offsetX + xs[1], offsetY + ys[1], offsetZ + zs[1], lineColor);
                     renderer.line(offsetX + xs[1], offsetY + ys[1], offsetZ + zs[1], offsetX + xs[2], offsetY + ys[2], offsetZ + zs[2], lineColor);
                     renderer.line(offsetX + xs[2], offsetY + ys[2], offsetZ + zs[2], offsetX + xs[3], offsetY + ys[3], offsetZ + zs[3], lineColor);
-                    renderer.line(offsetX + xs[0], offsetY + ys[0], offsetZ + zs[0], offsetX + xs[0], offsetY + ys[0], offsetZ + zs[0], lineColor);
+                    renderer.line(offsetX + xs[3], offsetY + ys[3], offsetZ + zs[3], offsetX + xs[0], offsetY + ys[0], offsetZ + zs[0], lineColor);
                 }
 
                 i = 0;
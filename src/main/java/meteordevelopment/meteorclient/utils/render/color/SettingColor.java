@@ -72,6 +72,20 @@ public class SettingColor extends Color {
         if (rainbow) set(RainbowColors.GLOBAL.r, RainbowColors.GLOBAL.g, RainbowColors.GLOBAL.b, a);
     }
 
+    /**
+     * Sets {@code out} to the color cached meshes are built with, which doesn't change every tick. Rainbow colors are
+     * white and the mesh is tinted with {@link #getMeshTint()}.
+     */
+    public Color getMeshColor(Color out) {
+        if (rainbow) return out.set(255, 255, 255, a);
+        return out.set(r, g, b, a);
+    }
+
+    /** @return the {@link meteordevelopment.meteorclient.renderer.Mesh#tint} of meshes built with {@link #getMeshColor(Color)} */
+    public Color getMeshTint() {
+        return rainbow ? RainbowColors.GLOBAL : null;
+    }
+
     @Override
     public SettingColor set(Color value) {
         super.set(value);
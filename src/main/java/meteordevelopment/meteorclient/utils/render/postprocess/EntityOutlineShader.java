@@ -0,0 +1,36 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.render.postprocess;
+
+import meteordevelopment.meteorclient.systems.modules.render.ESP;
+import net.minecraft.entity.Entity;
+
+public class EntityOutlineShader extends EntityShader {
+    private final ESP esp;
+
+    public EntityOutlineShader(ESP esp) {
+        this.esp = esp;
+        init("outline");
+    }
+
+    @Override
+    protected boolean shouldDraw() {
+        return esp.isOutline();
+    }
+
+    @Override
+    public boolean shouldDraw(Entity entity) {
+        return shouldDraw() && !esp.shouldSkip(entity);
+    }
+
+    @Override
+    protected void setUniforms() {
+        shader.set("u_Width", esp.outlineWidth.get());
+        shader.set("u_FillOpacity", esp.fillOpacity.get());
+        shader.set("u_ShapeMode", esp.outlineShapeMode.get().ordinal());
+        shader.set("u_GlowMultiplier", esp.glowMultiplier.get());
+    }
+}
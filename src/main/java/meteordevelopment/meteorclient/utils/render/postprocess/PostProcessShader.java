@@ -62,4 +62,14 @@ public abstract class PostProcessShader {
         if (framebuffer == null) return;
         framebuffer.resize(width, height);
     }
+
+    /** @return gpu memory in bytes used by the color and depth attachments */
+    public long getMemoryUsage() {
+        return framebuffer == null ? 0 : (long) framebuffer.textureWidth * framebuffer.textureHeight * 8;
+    }
+
+    public void destroy() {
+        framebuffer.delete();
+        shader.destroy();
+    }
 }
@@ -5,7 +5,11 @@
 
 package meteordevelopment.meteorclient.utils.world;
 
+import it.unimi.dsi.fastutil.longs.*;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.utils.PreInit;
 import meteordevelopment.meteorclient.utils.Utils;
@@ -13,7 +17,9 @@ import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -28,6 +34,10 @@ public class BlockIterator {
 
     private static final List<Runnable> afterCallbacks = new ArrayList<>();
 
+    private static final List<Window> windows = new ArrayList<>();
+    private static ClientWorld lastWorld;
+    private static int ticks;
+
     private static final BlockPos.Mutable blockPos = new BlockPos.Mutable();
     private static int hRadius, vRadius;
 
@@ -45,6 +55,8 @@ public class BlockIterator {
     private static void onTick(TickEvent.Pre event) {
         if (!Utils.canUpdate()) return;
 
+        tickWindows();
+
         int px = mc.player.getBlockX();
         int py = mc.player.getBlockY();
         int pz = mc.player.getBlockZ();
@@ -97,6 +109,25 @@ public class BlockIterator {
         callbacks.add(callback);
     }
 
+    /**
+     * Subscribes to an incrementally updated volume around the player. Unlike {@link #register(int, int, BiConsumer)}
+     * the volume is kept between ticks, only newly entered blocks, blocks changed by {@link BlockUpdateEvent}s and
+     * newly loaded chunks are evaluated again and the listener only receives the positions whose value changed.
+     *
+     * @param refreshTicks every block in the volume is also evaluated again once per this many ticks, for values that
+     *                     can change without a block update (e.g. light levels), 0 disables it
+     */
+    public static Window subscribe(int horizontalRadius, int verticalRadius, int refreshTicks, Classifier classifier, DeltaListener listener) {
+        Window window = new Window(horizontalRadius, verticalRadius, refreshTicks, classifier, listener);
+        windows.add(window);
+
+        return window;
+    }
+
+    public static void unsubscribe(Window window) {
+        if (windows.remove(window)) window.clear();
+    }
+
     public static void disableCurrent() {
         disableCurrent = true;
     }
@@ -105,6 +136,200 @@ public class BlockIterator {
         afterCallbacks.add(callback);
     }
 
+    // Windows
+
+    private static void tickWindows() {
+        if (mc.world != lastWorld) {
+            for (Window window : windows) window.clear();
+            lastWorld = mc.world;
+        }
+
+        int px = mc.player.getBlockX();
+        int py = mc.player.getBlockY();
+        int pz = mc.player.getBlockZ();
+
+        for (Window window : windows) window.tick(px, py, pz, ticks);
+        ticks++;
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        if (windows.isEmpty()) return;
+
+        // Most classifiers also look at the blocks around the position, e.g. the block below for mob spawns
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    long pos = BlockPos.asLong(event.pos.getX() + x, event.pos.getY() + y, event.pos.getZ() + z);
+                    for (Window window : windows) window.dirtyBlocks.add(pos);
+                }
+            }
+        }
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        for (Window window : windows) window.dirtyChunks.add(event.chunk().getPos().toLong());
+    }
+
+    @FunctionalInterface
+    public interface Classifier {
+        /** @return the value of the block at the position, 0 means the position is not part of the set */
+        int classify(BlockPos blockPos, BlockState blockState);
+    }
+
+    public interface DeltaListener {
+        /** Called when a position enters the set or its value changes. The block pos is reused so it must be copied if kept. */
+        void onAdded(BlockPos blockPos, int value);
+
+        /** Called when a position leaves the set, either because its value became 0 or it is no longer in the volume. */
+        void onRemoved(BlockPos blockPos);
+    }
+
+    public static class Window {
+        private final int hRadius, vRadius, refreshTicks;
+        private final Classifier classifier;
+        private final DeltaListener listener;
+
+        private final Long2IntMap values = new Long2IntOpenHashMap();
+        private final LongSet dirtyBlocks = new LongOpenHashSet();
+        private final LongSet dirtyChunks = new LongOpenHashSet();
+        private final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        private boolean scanned;
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+
+        private Window(int hRadius, int vRadius, int refreshTicks, Classifier classifier, DeltaListener listener) {
+            this.hRadius = hRadius;
+            this.vRadius = vRadius;
+            this.refreshTicks = refreshTicks;
+            this.classifier = classifier;
+            this.listener = listener;
+        }
+
+        private void tick(int px, int py, int pz, int ticks) {
+            int bottomY = mc.world.getBottomY();
+            int topY = bottomY + mc.world.getHeight() - 1;
+
+            int minX = px - hRadius, maxX = px + hRadius;
+            int minY = Math.max(bottomY, py - vRadius), maxY = Math.min(topY, py + vRadius);
+            int minZ = pz - hRadius, maxZ = pz + hRadius;
+
+            if (!scanned) {
+                scan(minX, minY, minZ, maxX, maxY, maxZ);
+                scanned = true;
+            }
+            else if (minX != this.minX || minY != this.minY || minZ != this.minZ || maxX != this.maxX || maxY != this.maxY || maxZ != this.maxZ) {
+                // Drop positions which left the volume
+                for (ObjectIterator<Long2IntMap.Entry> it = values.long2IntEntrySet().iterator(); it.hasNext();) {
+                    pos.set(it.next().getLongKey());
+
+                    if (pos.getX() < minX || pos.getX() > maxX || pos.getY() < minY || pos.getY() > maxY || pos.getZ() < minZ || pos.getZ() > maxZ) {
+                        it.remove();
+                        listener.onRemoved(pos);
+                    }
+                }
+
+                // Only scan the slab of newly entered blocks
+                for (int x = minX; x <= maxX; x++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        if (x < this.minX || x > this.maxX || z < this.minZ || z > this.maxZ) {
+                            scanColumn(x, z, minY, maxY);
+                        }
+                        else {
+                            if (minY < this.minY) scanColumn(x, z, minY, Math.min(maxY, this.minY - 1));
+                            if (maxY > this.maxY) scanColumn(x, z, Math.max(minY, this.maxY + 1), maxY);
+                        }
+                    }
+                }
+            }
+
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+
+            // Newly loaded chunks
+            if (!dirtyChunks.isEmpty()) {
+                for (LongIterator it = dirtyChunks.iterator(); it.hasNext();) {
+                    long chunk = it.nextLong();
+                    int startX = ChunkPos.getPackedX(chunk) << 4;
+                    int startZ = ChunkPos.getPackedZ(chunk) << 4;
+
+                    scan(Math.max(minX, startX), minY, Math.max(minZ, startZ), Math.min(maxX, startX + 15), maxY, Math.min(maxZ, startZ + 15));
+                }
+
+                dirtyChunks.clear();
+            }
+
+            // Changed blocks
+            if (!dirtyBlocks.isEmpty()) {
+                for (LongIterator it = dirtyBlocks.iterator(); it.hasNext();) {
+                    pos.set(it.nextLong());
+                    if (contains(pos.getX(), pos.getY(), pos.getZ())) evaluate(pos);
+                }
+
+                dirtyBlocks.clear();
+            }
+
+            // Rolling refresh, a different set of x slices every tick
+            if (refreshTicks > 0) {
+                int slice = ticks % refreshTicks;
+
+                for (int x = minX; x <= maxX; x++) {
+                    if (Math.floorMod(x, refreshTicks) != slice) continue;
+
+                    for (int z = minZ; z <= maxZ; z++) {
+                        scanColumn(x, z, minY, maxY);
+                    }
+                }
+            }
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private void scan(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    scanColumn(x, z, minY, maxY);
+                }
+            }
+        }
+
+        private void scanColumn(int x, int z, int minY, int maxY) {
+            for (int y = minY; y <= maxY; y++) {
+                evaluate(pos.set(x, y, z));
+            }
+        }
+
+        private void evaluate(BlockPos.Mutable pos) {
+            int value = classifier.classify(pos, mc.world.getBlockState(pos));
+            long key = pos.asLong();
+
+            if (value != 0) {
+                if (values.put(key, value) != value) listener.onAdded(pos, value);
+            }
+            else if (values.remove(key) != 0) {
+                listener.onRemoved(pos);
+            }
+        }
+
+        private void clear() {
+            for (Long2IntMap.Entry entry : values.long2IntEntrySet()) {
+                listener.onRemoved(pos.set(entry.getLongKey()));
+            }
+
+            values.clear();
+            dirtyBlocks.clear();
+            dirtyChunks.clear();
+            scanned = false;
+        }
+    }
+
     private static class Callback {
         public BiConsumer<BlockPos, BlockState> function;
         public int hRadius, vRadius;
@@ -9,6 +9,7 @@ import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
 import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.network.PacketListeners;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.network.packet.s2c.play.WorldTimeUpdateS2CPacket;
 import net.minecraft.util.math.MathHelper;
@@ -28,17 +29,15 @@ public class TickRate {
 
     private TickRate() {
         MeteorClient.EVENT_BUS.subscribe(this);
+        PacketListeners.RECEIVE.add(WorldTimeUpdateS2CPacket.class, this::onWorldTimeUpdate);
     }
 
-    @EventHandler
-    private void onReceivePacket(PacketEvent.Receive event) {
-        if (event.packet instanceof WorldTimeUpdateS2CPacket) {
-            long now = System.currentTimeMillis();
-            float timeElapsed = (now - timeLastTimeUpdate) / 1000.0F;
-            tickRates[nextIndex] = MathHelper.clamp(20.0f / timeElapsed, 0.0f, 20.0f);
-            nextIndex = (nextIndex + 1) % tickRates.length;
-            timeLastTimeUpdate = now;
-        }
+    private void onWorldTimeUpdate(PacketEvent.Receive event) {
+        long now = System.currentTimeMillis();
+        float timeElapsed = (now - timeLastTimeUpdate) / 1000.0F;
+        tickRates[nextIndex] = MathHelper.clamp(20.0f / timeElapsed, 0.0f, 20.0f);
+        nextIndex = (nextIndex + 1) % tickRates.length;
+        timeLastTimeUpdate = now;
     }
 
     @EventHandler
@@ -0,0 +1,13 @@
+#version 330 core
+
+precision lowp float;
+
+in vec2 uv;
+out vec4 color;
+
+uniform sampler2D uTexture;
+uniform float uAlpha;
+
+void main() {
+    color = vec4(texture(uTexture, uv).rgb, uAlpha);
+}
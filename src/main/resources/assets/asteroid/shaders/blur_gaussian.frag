@@ -0,0 +1,27 @@
+#version 330 core
+
+precision lowp float;
+
+in vec2 uv;
+out vec4 color;
+
+uniform sampler2D uTexture;
+uniform vec2 uDirection;
+uniform float uOffset;
+
+// 9 tap gaussian kernel using 5 linearly filtered samples
+const float offsets[3] = float[](0.0, 1.3846153846, 3.2307692308);
+const float weights[3] = float[](0.2270270270, 0.3162162162, 0.0702702703);
+
+void main() {
+    color = texture(uTexture, uv) * weights[0];
+
+    for (int i = 1; i < 3; i++) {
+        vec2 offset = uDirection * offsets[i] * uOffset;
+
+        color += texture(uTexture, uv + offset) * weights[i];
+        color += texture(uTexture, uv - offset) * weights[i];
+    }
+
+    color.a = 1;
+}
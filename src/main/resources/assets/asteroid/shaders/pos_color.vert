@@ -5,11 +5,12 @@ layout (location = 1) in vec4 color;
 
 uniform mat4 u_Proj;
 uniform mat4 u_ModelView;
+uniform vec4 u_Tint = vec4(1.0);
 
 out vec4 v_Color;
 
 void main() {
     gl_Position = u_Proj * u_ModelView * pos;
 
-    v_Color = color;
+    v_Color = color * u_Tint;
 }